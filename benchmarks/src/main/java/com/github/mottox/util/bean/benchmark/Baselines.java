@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.mottox.util.bean.benchmark.Beans.ObjectSource;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectTarget;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveSource;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveTarget;
+
+/**
+ * The baselines of benchmarks: hand-written copy code, a copier invoking the accessors by reflection, and cloning by
+ * serialization.
+ *
+ * @author Robin Wang
+ */
+public final class Baselines {
+
+    /**
+     * Private constructor.
+     */
+    private Baselines() {
+    }
+
+    /**
+     * Copy the properties of an {@link ObjectSource} by hand.
+     *
+     * @param source the source bean
+     * @param target the target bean
+     */
+    public static void copy(ObjectSource source, ObjectTarget target) {
+        target.setName(source.getName());
+        target.setAge(source.getAge());
+        target.setHeight(source.getHeight());
+        target.setWealth(source.getWealth());
+        target.setBirthday(source.getBirthday());
+        target.setEmail(source.getEmail());
+        target.setAccountId(source.getAccountId());
+        target.setActive(source.getActive());
+        target.setAddress(source.getAddress());
+        target.setTags(source.getTags());
+    }
+
+    /**
+     * Copy the properties of a {@link PrimitiveSource} by hand.
+     *
+     * @param source the source bean
+     * @param target the target bean
+     */
+    public static void copy(PrimitiveSource source, PrimitiveTarget target) {
+        target.setId(source.getId());
+        target.setTimestamp(source.getTimestamp());
+        target.setBid(source.getBid());
+        target.setAsk(source.getAsk());
+        target.setLast(source.getLast());
+        target.setVolume(source.getVolume());
+        target.setBidSize(source.getBidSize());
+        target.setAskSize(source.getAskSize());
+        target.setOpen(source.getOpen());
+        target.setClose(source.getClose());
+    }
+
+    /**
+     * Clone a serializable object deeply by serializing it to a byte array and deserializing it back.
+     *
+     * @param source the object
+     * @param <T>    the type of object
+     *
+     * @return the deep clone
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Serializable> T serializationClone(T source) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+                output.writeObject(source);
+            }
+            try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (T) input.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A copier invoking the getters and setters of properties of the same name and type by reflection.
+     */
+    public static final class ReflectionCopier {
+
+        private final Method[] getters;
+
+        private final Method[] setters;
+
+        public ReflectionCopier(Class<?> source, Class<?> target) {
+            try {
+                Map<String, PropertyDescriptor> readable = new HashMap<>();
+                for (PropertyDescriptor descriptor : Introspector.getBeanInfo(source).getPropertyDescriptors()) {
+                    if (descriptor.getReadMethod() != null) {
+                        readable.put(descriptor.getName(), descriptor);
+                    }
+                }
+                List<Method> getters = new ArrayList<>();
+                List<Method> setters = new ArrayList<>();
+                for (PropertyDescriptor descriptor : Introspector.getBeanInfo(target).getPropertyDescriptors()) {
+                    PropertyDescriptor getter = readable.get(descriptor.getName());
+                    if (descriptor.getWriteMethod() != null && getter != null
+                            && getter.getPropertyType() == descriptor.getPropertyType()) {
+                        getters.add(getter.getReadMethod());
+                        setters.add(descriptor.getWriteMethod());
+                    }
+                }
+                this.getters = getters.toArray(new Method[0]);
+                this.setters = setters.toArray(new Method[0]);
+            } catch (IntrospectionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public void copy(Object source, Object target) {
+            try {
+                for (int i = 0; i < getters.length; i++) {
+                    setters[i].invoke(target, getters[i].invoke(source));
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+}
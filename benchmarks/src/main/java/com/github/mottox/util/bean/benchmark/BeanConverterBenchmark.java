@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mottox.util.bean.BeanConverter;
+import com.github.mottox.util.bean.BeanConverterBuilder;
+import com.github.mottox.util.bean.CopyEngine;
+import com.github.mottox.util.bean.Mapper;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectSource;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectTarget;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveSource;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveTarget;
+
+/**
+ * Benchmark of {@link BeanConverter} by engine and number of registered converters.
+ *
+ * @author Robin Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeanConverterBenchmark {
+
+    @Param({"CGLIB", "PLAN", "BYTECODE", "LAMBDA"})
+    private CopyEngine engine;
+
+    @Param({"0", "5", "50"})
+    private int converters;
+
+    private BeanConverter converter;
+
+    private ObjectSource objectSource;
+
+    private ObjectTarget objectTarget;
+
+    private PrimitiveSource primitiveSource;
+
+    private PrimitiveTarget primitiveTarget;
+
+    private Mapper<ObjectSource, ObjectTarget> objectMapper;
+
+    @Setup
+    public void setUp() {
+        converter = Converters.register(BeanConverterBuilder.create().engine(engine), converters).build();
+        objectSource = Beans.objectSource();
+        objectTarget = new ObjectTarget();
+        primitiveSource = Beans.primitiveSource();
+        primitiveTarget = new PrimitiveTarget();
+        objectMapper = converter.mapper(ObjectSource.class, ObjectTarget.class);
+    }
+
+    @Benchmark
+    public ObjectTarget copyObjectBean() {
+        converter.copyProperties(objectSource, objectTarget);
+        return objectTarget;
+    }
+
+    @Benchmark
+    public PrimitiveTarget copyPrimitiveBean() {
+        converter.copyProperties(primitiveSource, primitiveTarget);
+        return primitiveTarget;
+    }
+
+    @Benchmark
+    public ObjectTarget convertObjectBean() {
+        return converter.convert(objectSource, ObjectTarget.class);
+    }
+
+    @Benchmark
+    public PrimitiveTarget convertPrimitiveBean() {
+        return converter.convert(primitiveSource, PrimitiveTarget.class);
+    }
+
+    @Benchmark
+    public ObjectTarget mapObjectBean() {
+        return objectMapper.map(objectSource);
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mottox.util.bean.BeanUtils;
+import com.github.mottox.util.bean.benchmark.Baselines.ReflectionCopier;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectSource;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectTarget;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveSource;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveTarget;
+
+/**
+ * Benchmark of {@link BeanUtils} against hand-written and reflection-based copy code.
+ *
+ * @author Robin Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeanUtilsBenchmark {
+
+    private ObjectSource objectSource;
+
+    private ObjectTarget objectTarget;
+
+    private PrimitiveSource primitiveSource;
+
+    private PrimitiveTarget primitiveTarget;
+
+    private ReflectionCopier objectReflectionCopier;
+
+    private ReflectionCopier primitiveReflectionCopier;
+
+    @Setup
+    public void setUp() {
+        objectSource = Beans.objectSource();
+        objectTarget = new ObjectTarget();
+        primitiveSource = Beans.primitiveSource();
+        primitiveTarget = new PrimitiveTarget();
+        objectReflectionCopier = new ReflectionCopier(ObjectSource.class, ObjectTarget.class);
+        primitiveReflectionCopier = new ReflectionCopier(PrimitiveSource.class, PrimitiveTarget.class);
+    }
+
+    @Benchmark
+    public ObjectTarget copyObjectBean() {
+        BeanUtils.copyProperties(objectSource, objectTarget);
+        return objectTarget;
+    }
+
+    @Benchmark
+    public PrimitiveTarget copyPrimitiveBean() {
+        BeanUtils.copyProperties(primitiveSource, primitiveTarget);
+        return primitiveTarget;
+    }
+
+    @Benchmark
+    public ObjectTarget convertObjectBean() {
+        return BeanUtils.convert(objectSource, ObjectTarget.class);
+    }
+
+    @Benchmark
+    public PrimitiveTarget convertPrimitiveBean() {
+        return BeanUtils.convert(primitiveSource, PrimitiveTarget.class);
+    }
+
+    @Benchmark
+    public ObjectTarget handWrittenObjectBean() {
+        Baselines.copy(objectSource, objectTarget);
+        return objectTarget;
+    }
+
+    @Benchmark
+    public PrimitiveTarget handWrittenPrimitiveBean() {
+        Baselines.copy(primitiveSource, primitiveTarget);
+        return primitiveTarget;
+    }
+
+    @Benchmark
+    public ObjectTarget reflectionObjectBean() {
+        objectReflectionCopier.copy(objectSource, objectTarget);
+        return objectTarget;
+    }
+
+    @Benchmark
+    public PrimitiveTarget reflectionPrimitiveBean() {
+        primitiveReflectionCopier.copy(primitiveSource, primitiveTarget);
+        return primitiveTarget;
+    }
+
+}
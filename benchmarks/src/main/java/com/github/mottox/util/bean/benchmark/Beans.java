@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The beans to copy in benchmarks.
+ *
+ * @author Robin Wang
+ */
+public final class Beans {
+
+    /**
+     * Private constructor.
+     */
+    private Beans() {
+    }
+
+    /**
+     * Create a populated {@link ObjectSource}.
+     *
+     * @return the source bean
+     */
+    public static ObjectSource objectSource() {
+        ObjectSource source = new ObjectSource();
+        source.setName("Peter");
+        source.setAge(34);
+        source.setHeight(1.85);
+        source.setWealth(BigDecimal.valueOf(123456789.87654321));
+        source.setBirthday(new Date(0));
+        source.setEmail("peter@example.com");
+        source.setAccountId(1234567890123L);
+        source.setActive(true);
+        source.setAddress("221B Baker Street");
+        source.setTags(Arrays.asList("a", "b", "c"));
+        return source;
+    }
+
+    /**
+     * Create a populated {@link PrimitiveSource}.
+     *
+     * @return the source bean
+     */
+    public static PrimitiveSource primitiveSource() {
+        PrimitiveSource source = new PrimitiveSource();
+        source.setId(1234567890123L);
+        source.setTimestamp(1500000000000L);
+        source.setBid(101.25);
+        source.setAsk(101.5);
+        source.setLast(101.375);
+        source.setVolume(987654321L);
+        source.setBidSize(300);
+        source.setAskSize(500);
+        source.setOpen(100.0);
+        source.setClose(101.0);
+        return source;
+    }
+
+    public static class ObjectSource implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String name;
+
+        private Integer age;
+
+        private Double height;
+
+        private BigDecimal wealth;
+
+        private Date birthday;
+
+        private String email;
+
+        private Long accountId;
+
+        private Boolean active;
+
+        private String address;
+
+        private List<String> tags;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public Double getHeight() {
+            return height;
+        }
+
+        public void setHeight(Double height) {
+            this.height = height;
+        }
+
+        public BigDecimal getWealth() {
+            return wealth;
+        }
+
+        public void setWealth(BigDecimal wealth) {
+            this.wealth = wealth;
+        }
+
+        public Date getBirthday() {
+            return birthday;
+        }
+
+        public void setBirthday(Date birthday) {
+            this.birthday = birthday;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        public void setAccountId(Long accountId) {
+            this.accountId = accountId;
+        }
+
+        public Boolean getActive() {
+            return active;
+        }
+
+        public void setActive(Boolean active) {
+            this.active = active;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public void setAddress(String address) {
+            this.address = address;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    public static class ObjectTarget {
+        private String name;
+
+        private Integer age;
+
+        private Double height;
+
+        private BigDecimal wealth;
+
+        private Date birthday;
+
+        private String email;
+
+        private Long accountId;
+
+        private Boolean active;
+
+        private String address;
+
+        private List<String> tags;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public Double getHeight() {
+            return height;
+        }
+
+        public void setHeight(Double height) {
+            this.height = height;
+        }
+
+        public BigDecimal getWealth() {
+            return wealth;
+        }
+
+        public void setWealth(BigDecimal wealth) {
+            this.wealth = wealth;
+        }
+
+        public Date getBirthday() {
+            return birthday;
+        }
+
+        public void setBirthday(Date birthday) {
+            this.birthday = birthday;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public Long getAccountId() {
+            return accountId;
+        }
+
+        public void setAccountId(Long accountId) {
+            this.accountId = accountId;
+        }
+
+        public Boolean getActive() {
+            return active;
+        }
+
+        public void setActive(Boolean active) {
+            this.active = active;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public void setAddress(String address) {
+            this.address = address;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    public static class PrimitiveSource {
+        private long id;
+
+        private long timestamp;
+
+        private double bid;
+
+        private double ask;
+
+        private double last;
+
+        private long volume;
+
+        private int bidSize;
+
+        private int askSize;
+
+        private double open;
+
+        private double close;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public double getBid() {
+            return bid;
+        }
+
+        public void setBid(double bid) {
+            this.bid = bid;
+        }
+
+        public double getAsk() {
+            return ask;
+        }
+
+        public void setAsk(double ask) {
+            this.ask = ask;
+        }
+
+        public double getLast() {
+            return last;
+        }
+
+        public void setLast(double last) {
+            this.last = last;
+        }
+
+        public long getVolume() {
+            return volume;
+        }
+
+        public void setVolume(long volume) {
+            this.volume = volume;
+        }
+
+        public int getBidSize() {
+            return bidSize;
+        }
+
+        public void setBidSize(int bidSize) {
+            this.bidSize = bidSize;
+        }
+
+        public int getAskSize() {
+            return askSize;
+        }
+
+        public void setAskSize(int askSize) {
+            this.askSize = askSize;
+        }
+
+        public double getOpen() {
+            return open;
+        }
+
+        public void setOpen(double open) {
+            this.open = open;
+        }
+
+        public double getClose() {
+            return close;
+        }
+
+        public void setClose(double close) {
+            this.close = close;
+        }
+    }
+
+    public static class PrimitiveTarget {
+        private long id;
+
+        private long timestamp;
+
+        private double bid;
+
+        private double ask;
+
+        private double last;
+
+        private long volume;
+
+        private int bidSize;
+
+        private int askSize;
+
+        private double open;
+
+        private double close;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public double getBid() {
+            return bid;
+        }
+
+        public void setBid(double bid) {
+            this.bid = bid;
+        }
+
+        public double getAsk() {
+            return ask;
+        }
+
+        public void setAsk(double ask) {
+            this.ask = ask;
+        }
+
+        public double getLast() {
+            return last;
+        }
+
+        public void setLast(double last) {
+            this.last = last;
+        }
+
+        public long getVolume() {
+            return volume;
+        }
+
+        public void setVolume(long volume) {
+            this.volume = volume;
+        }
+
+        public int getBidSize() {
+            return bidSize;
+        }
+
+        public void setBidSize(int bidSize) {
+            this.bidSize = bidSize;
+        }
+
+        public int getAskSize() {
+            return askSize;
+        }
+
+        public void setAskSize(int askSize) {
+            this.askSize = askSize;
+        }
+
+        public double getOpen() {
+            return open;
+        }
+
+        public void setOpen(double open) {
+            this.open = open;
+        }
+
+        public double getClose() {
+            return close;
+        }
+
+        public void setClose(double close) {
+            this.close = close;
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mottox.util.bean.BeanConverter;
+import com.github.mottox.util.bean.BeanConverterBuilder;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectSource;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectTarget;
+
+/**
+ * Benchmark of converting a list of beans one by one, in bulk and in parallel.
+ *
+ * @author Robin Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private BeanConverter converter;
+
+    private List<ObjectSource> sources;
+
+    @Setup
+    public void setUp() {
+        converter = BeanConverterBuilder.create().build();
+        sources = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sources.add(Beans.objectSource());
+        }
+    }
+
+    @Benchmark
+    public List<ObjectTarget> loop() {
+        List<ObjectTarget> targets = new ArrayList<>(sources.size());
+        for (ObjectSource source : sources) {
+            targets.add(converter.convert(source, ObjectTarget.class));
+        }
+        return targets;
+    }
+
+    @Benchmark
+    public List<ObjectTarget> convertList() {
+        return converter.convertList(sources, ObjectTarget.class);
+    }
+
+    @Benchmark
+    public List<ObjectTarget> convertAllParallel() {
+        return converter.convertAllParallel(sources, ObjectTarget.class);
+    }
+
+}
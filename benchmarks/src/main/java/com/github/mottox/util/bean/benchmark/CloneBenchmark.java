@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mottox.util.bean.BeanUtils;
+import com.github.mottox.util.bean.benchmark.Baselines.ReflectionCopier;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectSource;
+
+/**
+ * Benchmark of cloning beans by {@link BeanUtils#clone(Object)} and {@link BeanUtils#deepClone(Object)}, compared
+ * with converting a bean to its own class, cloning by reflection and cloning by serialization.
+ *
+ * @author Robin Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CloneBenchmark {
+
+    private ObjectSource source;
+
+    private ReflectionCopier reflectionCopier;
+
+    @Setup
+    public void setUp() {
+        source = Beans.objectSource();
+        reflectionCopier = new ReflectionCopier(ObjectSource.class, ObjectSource.class);
+    }
+
+    @Benchmark
+    public ObjectSource cloneBean() {
+        return BeanUtils.clone(source);
+    }
+
+    @Benchmark
+    public ObjectSource convertToSameClass() {
+        return BeanUtils.convert(source, ObjectSource.class);
+    }
+
+    @Benchmark
+    public ObjectSource reflectionClone() {
+        ObjectSource target = new ObjectSource();
+        reflectionCopier.copy(source, target);
+        return target;
+    }
+
+    @Benchmark
+    public ObjectSource deepCloneBean() {
+        return BeanUtils.deepClone(source);
+    }
+
+    @Benchmark
+    public ObjectSource serializationClone() {
+        return Baselines.serializationClone(source);
+    }
+
+}
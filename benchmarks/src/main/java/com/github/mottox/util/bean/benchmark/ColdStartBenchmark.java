@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mottox.util.bean.BeanConverter;
+import com.github.mottox.util.bean.BeanConverterBuilder;
+import com.github.mottox.util.bean.BeanUtils;
+import com.github.mottox.util.bean.CopyEngine;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectSource;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectTarget;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveSource;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveTarget;
+
+/**
+ * Benchmark of the first conversion of a class pair, which includes creating its copier.
+ * <p>
+ * Every invocation builds a fresh converter, so no copier created by a previous invocation is reused. Since cglib
+ * caches the classes it generates by class loader and the names of the class pair, the beans of every engine are
+ * loaded in a fresh class loader as well, so every invocation pays for loading the beans and creating their
+ * accessors and generated classes alike.
+ *
+ * @author Robin Wang
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 50)
+@Measurement(iterations = 200)
+@Fork(3)
+@State(Scope.Thread)
+public class ColdStartBenchmark {
+
+    @Param({"CGLIB", "PLAN", "BYTECODE", "LAMBDA"})
+    private CopyEngine engine;
+
+    private IsolatingClassLoader classLoader;
+
+    private BeanConverter converter;
+
+    private Object objectSource;
+
+    private Class<?> objectTarget;
+
+    private Object primitiveSource;
+
+    private Class<?> primitiveTarget;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws ReflectiveOperationException {
+        classLoader = new IsolatingClassLoader();
+        converter = BeanConverterBuilder.create().engine(engine).build();
+        objectSource = classLoader.loadClass(ObjectSource.class.getName()).newInstance();
+        objectTarget = classLoader.loadClass(ObjectTarget.class.getName());
+        primitiveSource = classLoader.loadClass(PrimitiveSource.class.getName()).newInstance();
+        primitiveTarget = classLoader.loadClass(PrimitiveTarget.class.getName());
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        converter.evict(classLoader);
+        BeanUtils.evict(classLoader);
+        classLoader.close();
+    }
+
+    @Benchmark
+    public Object firstObjectBeanConversion() {
+        return converter.convert(objectSource, objectTarget);
+    }
+
+    @Benchmark
+    public Object firstPrimitiveBeanConversion() {
+        return converter.convert(primitiveSource, primitiveTarget);
+    }
+
+    @Benchmark
+    public Object firstBeanUtilsConversion() {
+        return BeanUtils.convert(objectSource, objectTarget);
+    }
+
+    /**
+     * A class loader which loads the beans of the benchmarks itself instead of delegating to its parent.
+     */
+    private static final class IsolatingClassLoader extends URLClassLoader {
+
+        private static final URL LOCATION = Beans.class.getProtectionDomain().getCodeSource().getLocation();
+
+        private static final String PREFIX = Beans.class.getName() + '$';
+
+        IsolatingClassLoader() {
+            super(new URL[] {LOCATION}, Beans.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(PREFIX)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    clazz = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(clazz);
+                }
+                return clazz;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mottox.util.bean.BeanConverter;
+import com.github.mottox.util.bean.BeanConverterBuilder;
+import com.github.mottox.util.bean.BeanUtils;
+import com.github.mottox.util.bean.CopyEngine;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectSource;
+import com.github.mottox.util.bean.benchmark.Beans.ObjectTarget;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveSource;
+import com.github.mottox.util.bean.benchmark.Beans.PrimitiveTarget;
+
+/**
+ * Benchmark of many threads looking up the copiers of several class pairs in a shared cache.
+ *
+ * @author Robin Wang
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ContentionBenchmark {
+
+    /**
+     * The converter shared by all threads.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedState {
+
+        @Param({"CGLIB", "PLAN", "BYTECODE", "LAMBDA"})
+        private CopyEngine engine;
+
+        private BeanConverter converter;
+
+        @Setup
+        public void setUp() {
+            converter = BeanConverterBuilder.create().engine(engine).build();
+        }
+    }
+
+    /**
+     * The beans of a thread, which cycles through the class pairs.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private final Object[] sources = {
+                Beans.objectSource(), Beans.primitiveSource(), Beans.objectSource(), Beans.primitiveSource()
+        };
+
+        private final Class<?>[] targets = {
+                ObjectTarget.class, PrimitiveTarget.class, ObjectSource.class, PrimitiveSource.class
+        };
+
+        private int index;
+
+        int next() {
+            return index++ & 3;
+        }
+    }
+
+    @Benchmark
+    public Object converter(SharedState shared, ThreadState state) {
+        int i = state.next();
+        return shared.converter.convert(state.sources[i], state.targets[i]);
+    }
+
+    @Benchmark
+    public Object beanUtils(ThreadState state) {
+        int i = state.next();
+        return BeanUtils.convert(state.sources[i], state.targets[i]);
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.mottox.util.bean.BeanConverterBuilder;
+import com.github.mottox.util.bean.TypeConverter;
+
+/**
+ * The {@link TypeConverter}s registered on converters in benchmarks. None of them matches the properties of
+ * {@link Beans}, so they only add to the work of resolving converters.
+ *
+ * @author Robin Wang
+ */
+public final class Converters {
+
+    private static final List<TypeConverter<?, ?>> CONVERTERS = Collections.unmodifiableList(Arrays.asList(
+            (TypeConverter<Type00, String>) value -> null,
+            (TypeConverter<Type01, String>) value -> null,
+            (TypeConverter<Type02, String>) value -> null,
+            (TypeConverter<Type03, String>) value -> null,
+            (TypeConverter<Type04, String>) value -> null,
+            (TypeConverter<Type05, String>) value -> null,
+            (TypeConverter<Type06, String>) value -> null,
+            (TypeConverter<Type07, String>) value -> null,
+            (TypeConverter<Type08, String>) value -> null,
+            (TypeConverter<Type09, String>) value -> null,
+            (TypeConverter<Type10, String>) value -> null,
+            (TypeConverter<Type11, String>) value -> null,
+            (TypeConverter<Type12, String>) value -> null,
+            (TypeConverter<Type13, String>) value -> null,
+            (TypeConverter<Type14, String>) value -> null,
+            (TypeConverter<Type15, String>) value -> null,
+            (TypeConverter<Type16, String>) value -> null,
+            (TypeConverter<Type17, String>) value -> null,
+            (TypeConverter<Type18, String>) value -> null,
+            (TypeConverter<Type19, String>) value -> null,
+            (TypeConverter<Type20, String>) value -> null,
+            (TypeConverter<Type21, String>) value -> null,
+            (TypeConverter<Type22, String>) value -> null,
+            (TypeConverter<Type23, String>) value -> null,
+            (TypeConverter<Type24, String>) value -> null,
+            (TypeConverter<Type25, String>) value -> null,
+            (TypeConverter<Type26, String>) value -> null,
+            (TypeConverter<Type27, String>) value -> null,
+            (TypeConverter<Type28, String>) value -> null,
+            (TypeConverter<Type29, String>) value -> null,
+            (TypeConverter<Type30, String>) value -> null,
+            (TypeConverter<Type31, String>) value -> null,
+            (TypeConverter<Type32, String>) value -> null,
+            (TypeConverter<Type33, String>) value -> null,
+            (TypeConverter<Type34, String>) value -> null,
+            (TypeConverter<Type35, String>) value -> null,
+            (TypeConverter<Type36, String>) value -> null,
+            (TypeConverter<Type37, String>) value -> null,
+            (TypeConverter<Type38, String>) value -> null,
+            (TypeConverter<Type39, String>) value -> null,
+            (TypeConverter<Type40, String>) value -> null,
+            (TypeConverter<Type41, String>) value -> null,
+            (TypeConverter<Type42, String>) value -> null,
+            (TypeConverter<Type43, String>) value -> null,
+            (TypeConverter<Type44, String>) value -> null,
+            (TypeConverter<Type45, String>) value -> null,
+            (TypeConverter<Type46, String>) value -> null,
+            (TypeConverter<Type47, String>) value -> null,
+            (TypeConverter<Type48, String>) value -> null,
+            (TypeConverter<Type49, String>) value -> null));
+
+    /**
+     * Private constructor.
+     */
+    private Converters() {
+    }
+
+    /**
+     * Register the given number of converters on the builder.
+     *
+     * @param builder the builder
+     * @param count   the number of converters, at most 50
+     *
+     * @return the original builder
+     */
+    public static BeanConverterBuilder register(BeanConverterBuilder builder, int count) {
+        for (TypeConverter<?, ?> converter : CONVERTERS.subList(0, count)) {
+            builder.registerConverter(converter);
+        }
+        return builder;
+    }
+
+    private static final class Type00 {
+    }
+
+    private static final class Type01 {
+    }
+
+    private static final class Type02 {
+    }
+
+    private static final class Type03 {
+    }
+
+    private static final class Type04 {
+    }
+
+    private static final class Type05 {
+    }
+
+    private static final class Type06 {
+    }
+
+    private static final class Type07 {
+    }
+
+    private static final class Type08 {
+    }
+
+    private static final class Type09 {
+    }
+
+    private static final class Type10 {
+    }
+
+    private static final class Type11 {
+    }
+
+    private static final class Type12 {
+    }
+
+    private static final class Type13 {
+    }
+
+    private static final class Type14 {
+    }
+
+    private static final class Type15 {
+    }
+
+    private static final class Type16 {
+    }
+
+    private static final class Type17 {
+    }
+
+    private static final class Type18 {
+    }
+
+    private static final class Type19 {
+    }
+
+    private static final class Type20 {
+    }
+
+    private static final class Type21 {
+    }
+
+    private static final class Type22 {
+    }
+
+    private static final class Type23 {
+    }
+
+    private static final class Type24 {
+    }
+
+    private static final class Type25 {
+    }
+
+    private static final class Type26 {
+    }
+
+    private static final class Type27 {
+    }
+
+    private static final class Type28 {
+    }
+
+    private static final class Type29 {
+    }
+
+    private static final class Type30 {
+    }
+
+    private static final class Type31 {
+    }
+
+    private static final class Type32 {
+    }
+
+    private static final class Type33 {
+    }
+
+    private static final class Type34 {
+    }
+
+    private static final class Type35 {
+    }
+
+    private static final class Type36 {
+    }
+
+    private static final class Type37 {
+    }
+
+    private static final class Type38 {
+    }
+
+    private static final class Type39 {
+    }
+
+    private static final class Type40 {
+    }
+
+    private static final class Type41 {
+    }
+
+    private static final class Type42 {
+    }
+
+    private static final class Type43 {
+    }
+
+    private static final class Type44 {
+    }
+
+    private static final class Type45 {
+    }
+
+    private static final class Type46 {
+    }
+
+    private static final class Type47 {
+    }
+
+    private static final class Type48 {
+    }
+
+    private static final class Type49 {
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mottox.util.bean.BeanConverter;
+import com.github.mottox.util.bean.BeanConverterBuilder;
+import com.github.mottox.util.bean.CopyEngine;
+import com.github.mottox.util.bean.TypeConverter;
+
+/**
+ * Benchmark of the standard converters registered by {@link BeanConverterBuilder#registerStandardConverters()},
+ * compared with typical hand-written {@link TypeConverter}s of the same conversions, by engine, number of other
+ * registered converters and whether the enum names are known.
+ *
+ * @author Robin Wang
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StandardConvertersBenchmark {
+
+    @Param({"CGLIB", "PLAN", "BYTECODE", "LAMBDA"})
+    private CopyEngine engine;
+
+    @Param({"0", "50"})
+    private int converters;
+
+    @Param({"MEDIUM", "UNKNOWN"})
+    private String level;
+
+    private BeanConverter standard;
+
+    private BeanConverter handWritten;
+
+    private TextSource source;
+
+    private TypedTarget target;
+
+    @Setup
+    public void setUp() {
+        standard = Converters.register(BeanConverterBuilder.create().engine(engine), converters)
+                .registerStandardConverters()
+                .build();
+        handWritten = Converters.register(BeanConverterBuilder.create().engine(engine), converters)
+                .registerConverter((TypeConverter<String, Integer>) Integer::valueOf)
+                .registerConverter((TypeConverter<String, Level>) value -> {
+                    try {
+                        return Level.valueOf(value);
+                    } catch (IllegalArgumentException e) {
+                        return null;
+                    }
+                })
+                .registerConverter((TypeConverter<Date, LocalDateTime>) value ->
+                        LocalDateTime.ofInstant(value.toInstant(), ZoneId.systemDefault()))
+                .registerConverter((TypeConverter<BigDecimal, Double>) value -> Double.valueOf(value.toString()))
+                .registerConverter((TypeConverter<LocalDate, String>) value ->
+                        value.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")))
+                .build();
+        source = new TextSource();
+        source.setCount("42");
+        source.setLevel(level);
+        source.setCreated(new Date(1500000000000L));
+        source.setPrice(new BigDecimal("1234.56"));
+        source.setDay(LocalDate.of(2017, 7, 14));
+        target = new TypedTarget();
+    }
+
+    @Benchmark
+    public TypedTarget copyStandard() {
+        standard.copyProperties(source, target);
+        return target;
+    }
+
+    @Benchmark
+    public TypedTarget copyHandWritten() {
+        handWritten.copyProperties(source, target);
+        return target;
+    }
+
+    public enum Level {
+        LOW, MEDIUM, HIGH
+    }
+
+    public static class TextSource {
+        private String count;
+
+        private String level;
+
+        private Date created;
+
+        private BigDecimal price;
+
+        private LocalDate day;
+
+        public String getCount() {
+            return count;
+        }
+
+        public void setCount(String count) {
+            this.count = count;
+        }
+
+        public String getLevel() {
+            return level;
+        }
+
+        public void setLevel(String level) {
+            this.level = level;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+
+        public void setCreated(Date created) {
+            this.created = created;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public void setDay(LocalDate day) {
+            this.day = day;
+        }
+    }
+
+    public static class TypedTarget {
+        private int count;
+
+        private Level level;
+
+        private LocalDateTime created;
+
+        private Double price;
+
+        private String day;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public void setLevel(Level level) {
+            this.level = level;
+        }
+
+        public LocalDateTime getCreated() {
+            return created;
+        }
+
+        public void setCreated(LocalDateTime created) {
+            this.created = created;
+        }
+
+        public Double getPrice() {
+            return price;
+        }
+
+        public void setPrice(Double price) {
+            this.price = price;
+        }
+
+        public String getDay() {
+            return day;
+        }
+
+        public void setDay(String day) {
+            this.day = day;
+        }
+    }
+
+}
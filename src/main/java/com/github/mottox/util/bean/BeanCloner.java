@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.github.mottox.util.bean.BeanConverterImpl.ConverterAdapter;
+import com.github.mottox.util.bean.DeepConversion.Graph;
+
+/**
+ * The cloning of beans to beans of the same class, which is faster than converting a bean to its own class since every
+ * property is assigned directly.
+ * <p>
+ * A shallow clone is copied by the generated copier of the plan of the class to itself. A deep clone is copied by the
+ * generated copier of a plan whose properties of immutable types, such as primitives, strings, boxed numbers, enums
+ * and the types of <code>java.time</code>, are assigned directly, and whose other properties are cloned by a cloner
+ * resolved once per class of value:
+ * <ul>
+ * <li>arrays are copied by {@link System#arraycopy} if their elements are immutable, and element by element
+ * otherwise;</li>
+ * <li>collections and maps are copied into new instances of their classes, or into an {@link ArrayList},
+ * {@link LinkedHashSet}, {@link ArrayDeque} or {@link LinkedHashMap} if their classes have no no-arg constructor,
+ * keeping the comparators of sorted ones;</li>
+ * <li>dates are copied by {@link Date#clone()}, and nested beans are cloned deeply;</li>
+ * <li>other types of the JDK are shared with the source bean.</li>
+ * </ul>
+ * Like {@link DeepConversion}, a deep clone tracks the objects it has cloned by identity, so an object referenced
+ * twice is cloned once and cycles are reproduced, and copies nested beans from a work queue.
+ *
+ * @author Robin Wang
+ */
+final class BeanCloner {
+
+    /**
+     * The function looking up the factory of a class.
+     */
+    private final Function<Class<?>, Supplier<?>> factories;
+
+    /**
+     * The copiers of shallow clones by class, keyed by the class as both source and target.
+     */
+    private final ClassPairCache<Copier> copiers;
+
+    /**
+     * The copiers of deep clones by class, keyed by the class as both source and target.
+     */
+    private final ClassPairCache<Copier> deepCopiers;
+
+    private final BiFunction<Class<?>, Class<?>, Copier> copierFactory =
+            (type, ignored) -> BytecodeCopierGenerator.create(MappingPlan.assignableTypes(type, type));
+
+    private final BiFunction<Class<?>, Class<?>, Copier> deepCopierFactory =
+            (type, ignored) -> BytecodeCopierGenerator.create(MappingPlan.cloning(type, this::bind));
+
+    /**
+     * The cloners of values by class, replaced as a whole when the cloners of more than one class are evicted, since
+     * a {@link ClassValue} cannot enumerate its classes.
+     */
+    private volatile ClassValue<TypeConverter<Object, Object>> cloners = newCloners();
+
+    /**
+     * The cloner of values of any class.
+     */
+    private final TypeConverter<Object, Object> valueCloner = this::cloneValue;
+
+    /**
+     * The graph being cloned by the current thread, if any.
+     */
+    private final ThreadLocal<Graph> graphs = new ThreadLocal<>();
+
+    /**
+     * Construct a new bean cloner.
+     *
+     * @param factories        the function looking up the factory of a class, which throws a {@link RuntimeException}
+     *                         if the class is not instantiable
+     * @param maximumCacheSize the maximum number of cached copiers of each kind, or zero if unbounded
+     */
+    BeanCloner(Function<Class<?>, Supplier<?>> factories, int maximumCacheSize) {
+        this.factories = factories;
+        this.copiers = new ClassPairCache<>(maximumCacheSize);
+        this.deepCopiers = new ClassPairCache<>(maximumCacheSize);
+    }
+
+    /**
+     * Clone the given bean shallowly, so the clone shares the values of its properties with the bean.
+     *
+     * @param source the bean
+     * @param <T>    the type of bean
+     *
+     * @return a new bean of the same class
+     */
+    @SuppressWarnings("unchecked")
+    <T> T clone(T source) {
+        Class<?> type = source.getClass();
+        Object target = factories.apply(type).get();
+        copiers.get(type, type, copierFactory).copy(source, target);
+        return (T) target;
+    }
+
+    /**
+     * Clone the given object deeply.
+     *
+     * @param source the object, typically a bean
+     * @param <T>    the type of object
+     *
+     * @return the deep clone, or the object itself if it is immutable or a type of the JDK that is not cloned
+     */
+    @SuppressWarnings("unchecked")
+    <T> T deepClone(T source) {
+        if (graphs.get() != null) {
+            return (T) cloneValue(source);
+        }
+        Graph graph = new Graph();
+        graphs.set(graph);
+        try {
+            Object target = cloneValue(source);
+            graph.drain();
+            return (T) target;
+        } finally {
+            graphs.remove();
+        }
+    }
+
+    /**
+     * Evict the cached copiers and cloners of the given class.
+     *
+     * @param clazz the class to evict
+     */
+    void evict(Class<?> clazz) {
+        cloners.remove(clazz);
+        copiers.evict(clazz);
+        deepCopiers.evict(clazz);
+    }
+
+    /**
+     * Evict the cached copiers of the classes loaded by the given class loader, and all cached cloners.
+     *
+     * @param classLoader the class loader to evict
+     */
+    void evict(ClassLoader classLoader) {
+        cloners = newCloners();
+        copiers.evict(classLoader);
+        deepCopiers.evict(classLoader);
+    }
+
+    /**
+     * Evict all cached copiers and cloners.
+     */
+    void clear() {
+        cloners = newCloners();
+        copiers.clear();
+        deepCopiers.clear();
+    }
+
+    /**
+     * Get the number of cached copiers.
+     *
+     * @return the number of cached copiers
+     */
+    int size() {
+        return copiers.size() + deepCopiers.size();
+    }
+
+    private ClassValue<TypeConverter<Object, Object>> newCloners() {
+        return new ClassValue<TypeConverter<Object, Object>>() {
+            @Override
+            protected TypeConverter<Object, Object> computeValue(Class<?> type) {
+                return create(type);
+            }
+        };
+    }
+
+    /**
+     * Bind the cloner of a property of the given declared type.
+     */
+    private TypeConverter<Object, Object> bind(Class<?> type) {
+        if (isImmutable(type)) {
+            return ConverterAdapter.PASS_THROUGH;
+        }
+        // Every value of a final class is of the class itself, so its cloner is resolved right now.
+        return Modifier.isFinal(type.getModifiers()) ? cloners.get(type) : valueCloner;
+    }
+
+    private Object cloneValue(Object value) {
+        return value == null ? null : cloners.get(value.getClass()).convert(value);
+    }
+
+    /**
+     * Clone a set element or map key right away, since its hash code must not change once inserted.
+     */
+    private Object cloneEagerly(Object value) {
+        Graph graph = graphs.get();
+        graph.eager++;
+        try {
+            return cloneValue(value);
+        } finally {
+            graph.eager--;
+        }
+    }
+
+    private TypeConverter<Object, Object> create(Class<?> type) {
+        if (isImmutable(type)) {
+            return ConverterAdapter.PASS_THROUGH;
+        }
+        if (type.isArray()) {
+            return array(type.getComponentType());
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return value -> ((Date) value).clone();
+        }
+        if (EnumSet.class.isAssignableFrom(type)) {
+            return value -> ((EnumSet<?>) value).clone();
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return collection(type);
+        }
+        if (EnumMap.class.isAssignableFrom(type)) {
+            return value -> tracked(value, ((EnumMap<?, ?>) value)::clone, this::copyValues);
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return map(type);
+        }
+        if (DeepConversion.isBean(type)) {
+            try {
+                return new BeanStep(type, factories.apply(type));
+            } catch (RuntimeException e) {
+                // Beans which are not instantiable are shared like the types of the JDK.
+                return ConverterAdapter.PASS_THROUGH;
+            }
+        }
+        return ConverterAdapter.PASS_THROUGH;
+    }
+
+    private TypeConverter<Object, Object> array(Class<?> componentType) {
+        if (componentType.isPrimitive() || isImmutable(componentType)) {
+            return value -> tracked(value, () -> {
+                int length = Array.getLength(value);
+                Object copy = Array.newInstance(componentType, length);
+                System.arraycopy(value, 0, copy, 0, length);
+                return copy;
+            }, (source, copy) -> {
+            });
+        }
+        return value -> tracked(value, () -> Array.newInstance(componentType, Array.getLength(value)),
+                (source, copy) -> {
+                    Object[] elements = (Object[]) source;
+                    Object[] copies = (Object[]) copy;
+                    for (int i = 0; i < elements.length; i++) {
+                        copies[i] = cloneValue(elements[i]);
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypeConverter<Object, Object> collection(Class<?> type) {
+        boolean set = Set.class.isAssignableFrom(type);
+        Function<Collection<Object>, Collection<Object>> factory;
+        if (SortedSet.class.isAssignableFrom(type)) {
+            factory = value -> new TreeSet<>(((SortedSet<Object>) value).comparator());
+        } else if (type == ArrayList.class) {
+            factory = value -> new ArrayList<>(value.size());
+        } else {
+            Supplier<?> supplier = factory(type);
+            if (supplier != null) {
+                factory = value -> (Collection<Object>) supplier.get();
+            } else if (List.class.isAssignableFrom(type)) {
+                factory = value -> new ArrayList<>(value.size());
+            } else if (set) {
+                factory = value -> new LinkedHashSet<>(Math.max((int) (value.size() / .75F) + 1, 16));
+            } else if (Queue.class.isAssignableFrom(type)) {
+                factory = value -> new ArrayDeque<>(value.size());
+            } else {
+                factory = value -> new ArrayList<>(value.size());
+            }
+        }
+        return value -> tracked(value, () -> factory.apply((Collection<Object>) value), (source, copy) -> {
+            Collection<Object> copies = (Collection<Object>) copy;
+            for (Object element : (Collection<Object>) source) {
+                copies.add(set ? cloneEagerly(element) : cloneValue(element));
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypeConverter<Object, Object> map(Class<?> type) {
+        Function<Map<Object, Object>, Map<Object, Object>> factory;
+        if (SortedMap.class.isAssignableFrom(type)) {
+            factory = value -> new TreeMap<>(((SortedMap<Object, Object>) value).comparator());
+        } else {
+            Supplier<?> supplier = factory(type);
+            if (supplier != null) {
+                factory = value -> (Map<Object, Object>) supplier.get();
+            } else {
+                factory = value -> new LinkedHashMap<>(Math.max((int) (value.size() / .75F) + 1, 16));
+            }
+        }
+        return value -> tracked(value, () -> factory.apply((Map<Object, Object>) value), (source, copy) -> {
+            Map<Object, Object> copies = (Map<Object, Object>) copy;
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) source).entrySet()) {
+                copies.put(cloneEagerly(entry.getKey()), cloneValue(entry.getValue()));
+            }
+        });
+    }
+
+    /**
+     * Clone the values of a copied {@link EnumMap}, whose keys are immutable.
+     */
+    @SuppressWarnings("unchecked")
+    private void copyValues(Object source, Object copy) {
+        for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) copy).entrySet()) {
+            entry.setValue(cloneValue(entry.getValue()));
+        }
+    }
+
+    /**
+     * Get the factory of the given container class, or null if it is not public or has no public no-arg constructor,
+     * e.g. the unmodifiable views of {@link java.util.Collections}.
+     */
+    private Supplier<?> factory(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            type.getConstructor();
+            return factories.apply(type);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Clone a container unless it has been cloned in the current graph, recording the copy before its elements are
+     * cloned so that cycles through the container are reproduced.
+     */
+    private Object tracked(Object value, Supplier<Object> factory, BiConsumer<Object, Object> fill) {
+        Graph graph = graphs.get();
+        Object copy = graph.get(value, Object.class);
+        if (copy == null) {
+            copy = factory.get();
+            graph.put(value, copy);
+            fill.accept(value, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Determine if every value of the given type is immutable, so it is shared rather than cloned.
+     */
+    private static boolean isImmutable(Class<?> type) {
+        return type.isPrimitive() || ClassUtils.isPrimitiveWrapper(type) || type == String.class
+                || Enum.class.isAssignableFrom(type) || type == BigDecimal.class || type == BigInteger.class
+                || type == Class.class || type == UUID.class || type == Locale.class || type == Currency.class
+                || type == Pattern.class || type.getName().startsWith("java.time.");
+    }
+
+    /**
+     * The cloning of nested beans of a fixed class.
+     */
+    private final class BeanStep implements TypeConverter<Object, Object> {
+
+        private final Class<?> type;
+
+        private final Supplier<?> factory;
+
+        BeanStep(Class<?> type, Supplier<?> factory) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        @Override
+        public Object convert(Object value) {
+            Graph graph = graphs.get();
+            Object target = graph.get(value, type);
+            if (target == null) {
+                target = factory.get();
+                graph.put(value, target);
+                graph.copy(value, target, deepCopiers.get(type, type, deepCopierFactory));
+            }
+            return target;
+        }
+    }
+
+}
@@ -22,6 +22,19 @@
 
 package com.github.mottox.util.bean;
 
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 import net.sf.cglib.beans.BeanCopier;
 
 /**
@@ -41,6 +54,35 @@ public interface BeanConverter {
      */
     void copyProperties(Object source, Object target);
 
+    /**
+     * Copy the non-null property values of the given source bean into the target bean, e.g. for partial updates.
+     * A property of the target bean is left untouched if the value of the source bean, or the value it is converted
+     * to, is null.
+     *
+     * @param source the source bean
+     * @param target the target bean
+     */
+    default void copyNonNull(Object source, Object target) {
+        copyNonNull(source, target, null);
+    }
+
+    /**
+     * Copy the non-null property values of the given source bean into the target bean like
+     * {@link #copyNonNull(Object, Object)}, and add the names of the properties whose values have changed to the
+     * given collection. A value has changed unless it equals the current value of the target bean, so properties
+     * which are not readable in the target bean are always changed.
+     * The default implementation throws {@link UnsupportedOperationException}, since only the implementation knows
+     * how it converts the values to check for null.
+     *
+     * @param source            the source bean
+     * @param target            the target bean
+     * @param changedProperties the collection to add the names of changed properties to, or null if they are not
+     *                          needed
+     */
+    default void copyNonNull(Object source, Object target, Collection<? super String> changedProperties) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support copyNonNull");
+    }
+
     /**
      * Convert the given source bean to a target bean of specified type.
      *
@@ -52,4 +94,306 @@ public interface BeanConverter {
      */
     <T> T convert(Object source, Class<T> clazz);
 
+    /**
+     * Clone the given bean shallowly, e.g. for a defensive copy, so the clone shares the values of its properties
+     * with the bean. The default implementation clones like {@link BeanUtils#clone(Object)}.
+     *
+     * @param source the bean
+     * @param <T>    the type of bean
+     *
+     * @return a new bean of the same class
+     */
+    default <T> T clone(T source) {
+        return BeanUtils.clone(source);
+    }
+
+    /**
+     * Clone the given bean deeply, so the clone shares no mutable collections, arrays, maps, dates or nested beans
+     * with the bean. Values of immutable types, such as strings, boxed numbers, enums and the types of
+     * <code>java.time</code>, are shared. The default implementation clones like {@link BeanUtils#deepClone(Object)}.
+     *
+     * @param source the bean
+     * @param <T>    the type of bean
+     *
+     * @return a new bean of the same class
+     */
+    default <T> T deepClone(T source) {
+        return BeanUtils.deepClone(source);
+    }
+
+    /**
+     * Get a mapper of source beans of the given type to target beans of the given type, e.g. to be stored in a static
+     * final field where the types are fixed.
+     * The default implementation delegates to {@link #convert(Object, Class)} and
+     * {@link #copyProperties(Object, Object)}.
+     *
+     * @param sourceType the type of source beans
+     * @param targetType the type of target beans
+     * @param <S>        the type of source beans
+     * @param <T>        the type of target beans
+     *
+     * @return the mapper of the source type to the target type
+     */
+    default <S, T> Mapper<S, T> mapper(Class<S> sourceType, Class<T> targetType) {
+        Objects.requireNonNull(sourceType, "sourceType must not be null");
+        Objects.requireNonNull(targetType, "targetType must not be null");
+        BeanConverter converter = this;
+        return new Mapper<S, T>() {
+            @Override
+            public T map(S source) {
+                return source == null ? null : converter.convert(source, targetType);
+            }
+
+            @Override
+            public void copy(S source, T target) {
+                converter.copyProperties(source, target);
+            }
+
+            @Override
+            public Class<S> getSourceType() {
+                return sourceType;
+            }
+
+            @Override
+            public Class<T> getTargetType() {
+                return targetType;
+            }
+        };
+    }
+
+    /**
+     * Convert the given source bean to a map of its readable property names to values, in the order of the
+     * properties. Conversely, a map is copied into the writable properties of a bean whose names it contains by
+     * {@link #copyProperties(Object, Object)} and {@link #convert(Object, Class)}.
+     * The default implementation copies the properties into a new {@link LinkedHashMap}, so implementations whose
+     * {@link #copyProperties(Object, Object)} does not support {@link Map} targets must override this method.
+     *
+     * @param source the source bean
+     *
+     * @return the map of property names to values
+     */
+    default Map<String, Object> toMap(Object source) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        copyProperties(source, result);
+        return result;
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans of specified type in the same order.
+     * Null source beans are converted to null.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    default <T> List<T> convertAll(Iterable<?> sources, Class<T> clazz) {
+        List<T> result = new ArrayList<>();
+        for (Object source : sources) {
+            result.add(source == null ? null : convert(source, clazz));
+        }
+        return result;
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans of specified type in the same order.
+     * Null source beans are converted to null.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    default <T> List<T> convertList(List<?> sources, Class<T> clazz) {
+        return convertAll(sources, clazz);
+    }
+
+    /**
+     * Convert the given source beans to an array of target beans of specified type in the same order.
+     * Null source beans are converted to null.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the array of target beans of type <code>T</code>
+     */
+    default <T> T[] convertArray(Object[] sources, Class<T> clazz) {
+        @SuppressWarnings("unchecked")
+        T[] result = (T[]) Array.newInstance(clazz, sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            result[i] = sources[i] == null ? null : convert(sources[i], clazz);
+        }
+        return result;
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans of specified type in the same order, in parallel on
+     * the common {@link ForkJoinPool}. Null source beans are converted to null.
+     * The default implementation converts sequentially.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    default <T> List<T> convertAllParallel(Collection<?> sources, Class<T> clazz) {
+        return convertAll(sources, clazz);
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans of specified type in the same order, in parallel on
+     * the given executor. Null source beans are converted to null.
+     * The default implementation converts sequentially.
+     *
+     * @param sources  the source beans
+     * @param clazz    the class of target beans
+     * @param executor the executor to run the conversion
+     * @param <T>      the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    default <T> List<T> convertAllParallel(Collection<?> sources, Class<T> clazz, Executor executor) {
+        return convertAll(sources, clazz);
+    }
+
+    /**
+     * Get a function that converts source beans to target beans of specified type.
+     * Null source beans are converted to null.
+     *
+     * @param clazz the class of target beans
+     * @param <T>   the type of target beans
+     *
+     * @return the function converting source beans to target beans of type <code>T</code>
+     */
+    default <T> Function<Object, T> asFunction(Class<T> clazz) {
+        Objects.requireNonNull(clazz, "clazz must not be null");
+        return source -> source == null ? null : convert(source, clazz);
+    }
+
+    /**
+     * Lazily convert the given stream of source beans to a stream of target beans of specified type.
+     * Null source beans are converted to null.
+     *
+     * @param sources the stream of source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the stream of target beans of type <code>T</code>
+     */
+    default <T> Stream<T> convertStream(Stream<?> sources, Class<T> clazz) {
+        return sources.map(asFunction(clazz));
+    }
+
+    /**
+     * Lazily convert the given iterator of source beans to an iterator of target beans of specified type.
+     * Null source beans are converted to null.
+     *
+     * @param sources the iterator of source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the iterator of target beans of type <code>T</code>
+     */
+    default <T> Iterator<T> convertIterator(Iterator<?> sources, Class<T> clazz) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        Function<Object, T> function = asFunction(clazz);
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return sources.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return function.apply(sources.next());
+            }
+        };
+    }
+
+    /**
+     * Lazily copy each source bean of the given iterator into the same target bean, which the returned iterator
+     * returns for every source bean. This avoids creating a target bean per source bean, but the caller must be done
+     * with a target bean before getting the next one. Properties are copied as by {@link #copyProperties}, so
+     * properties not copied from the current source bean keep the value from a previous one.
+     *
+     * @param sources the iterator of source beans, which must not contain null
+     * @param target  the target bean to reuse
+     * @param <T>     the type of target bean
+     *
+     * @return the iterator returning the target bean
+     */
+    default <T> Iterator<T> recyclingIterator(Iterator<?> sources, T target) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return sources.hasNext();
+            }
+
+            @Override
+            public T next() {
+                copyProperties(sources.next(), target);
+                return target;
+            }
+        };
+    }
+
+    /**
+     * Prepare the conversion of the given source type to the given target type, so that the first conversion does
+     * not pay for creating the copier, resolving the converters of properties and creating the target factory.
+     * The default implementation does nothing, for converters which have nothing to prepare.
+     *
+     * @param source the source type
+     * @param target the target type
+     */
+    default void prepare(Class<?> source, Class<?> target) {
+    }
+
+    /**
+     * Prepare the conversions of the given source types to the target types declared by their {@link Convertible}
+     * annotations, typically at startup.
+     *
+     * @param sources the source types annotated by {@link Convertible}
+     *
+     * @throws IllegalArgumentException if a source type is not annotated by {@link Convertible}
+     */
+    default void prepareAll(Class<?>... sources) {
+        for (Class<?> source : sources) {
+            for (Class<?> target : CopierGenerator.targets(source)) {
+                prepare(source, target);
+            }
+        }
+    }
+
+    /**
+     * Evict the cached copiers of which the source type or the target type is the given class.
+     * The default implementation does nothing, for converters which cache no copiers.
+     *
+     * @param clazz the class to evict
+     */
+    default void evict(Class<?> clazz) {
+    }
+
+    /**
+     * Evict the cached copiers of which the source type or the target type is loaded by the given class loader,
+     * typically before the class loader is discarded.
+     * The default implementation does nothing, for converters which cache no copiers.
+     *
+     * @param classLoader the class loader to evict
+     */
+    default void evict(ClassLoader classLoader) {
+    }
+
+    /**
+     * Evict all cached copiers.
+     * The default implementation does nothing, for converters which cache no copiers.
+     */
+    default void clearCache() {
+    }
+
 }
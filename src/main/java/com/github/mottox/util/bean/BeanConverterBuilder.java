@@ -22,8 +22,17 @@
 
 package com.github.mottox.util.bean;
 
+import java.beans.PropertyDescriptor;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import net.sf.cglib.core.ReflectUtils;
 
 /**
  * A builder class that builds a {@link BeanConverterImpl}.
@@ -37,11 +46,55 @@ public class BeanConverterBuilder {
      */
     private List<TypeConverter<?, ?>> converters;
 
+    /**
+     * The standard converters, or null if they are not registered.
+     */
+    private StandardConverters standardConverters;
+
+    /**
+     * The factories creating instances of target types.
+     */
+    private Map<Class<?>, Supplier<?>> factories;
+
+    /**
+     * The engine to copy properties.
+     */
+    private CopyEngine engine;
+
+    /**
+     * The maximum number of cached copiers, or zero if unbounded.
+     */
+    private int maximumCacheSize;
+
+    /**
+     * The metrics to record to.
+     */
+    private ConversionMetrics metrics;
+
+    /**
+     * Whether nested beans and containers are converted deeply.
+     */
+    private boolean deepConversion;
+
+    /**
+     * Whether the mapping of every class pair is validated when its copier is created.
+     */
+    private boolean strict;
+
+    /**
+     * The builders of the mapping rules by source type and target type.
+     */
+    private Map<Class<?>, Map<Class<?>, MappingRules.Builder>> rules;
+
     /**
      * Private constructors.
      */
     private BeanConverterBuilder() {
         this.converters = new ArrayList<>();
+        this.factories = new HashMap<>();
+        this.rules = new HashMap<>();
+        this.engine = CopyEngine.CGLIB;
+        this.metrics = ConversionMetrics.NONE;
     }
 
     /**
@@ -54,7 +107,8 @@ public class BeanConverterBuilder {
     }
 
     /**
-     * Put a {@link TypeConverter} into the builder.
+     * Put a {@link TypeConverter} into the builder. If several converters match a value, the converters are tried
+     * in the order their source types are first registered, and in the order of registration within a source type.
      *
      * @param converter the {@link TypeConverter} to put
      *
@@ -65,12 +119,227 @@ public class BeanConverterBuilder {
         return this;
     }
 
+    /**
+     * Register the standard converters as a unit, which convert strings to and from numbers, booleans, enums and the
+     * types of <code>java.time</code>, widen boxed numbers, convert {@link java.math.BigDecimal} to and from
+     * {@link Double}, and {@link java.util.Date} to and from {@link java.time.Instant},
+     * {@link java.time.LocalDateTime}, {@link java.time.LocalDate} and epoch milliseconds. Local dates and times are
+     * converted to and from {@link java.util.Date} in the system default zone.
+     * <p>
+     * The standard converters are looked up by type when no registered {@link TypeConverter} matches, so they do not
+     * add to the converters scanned in order. Enum names are converted by a lookup table, and an unknown name, like
+     * a string converted to a boolean which is neither <code>true</code> nor <code>false</code>, throws an
+     * {@link IllegalArgumentException}.
+     *
+     * @return the original builder
+     */
+    public BeanConverterBuilder registerStandardConverters() {
+        return registerStandardConverters(ZoneId.systemDefault());
+    }
+
+    /**
+     * Register the standard converters like {@link #registerStandardConverters()}, converting local dates and times
+     * to and from {@link java.util.Date} in the given zone.
+     *
+     * @param zone the zone of local dates and times
+     *
+     * @return the original builder
+     */
+    public BeanConverterBuilder registerStandardConverters(ZoneId zone) {
+        this.standardConverters = new StandardConverters(zone);
+        return this;
+    }
+
+    /**
+     * Put a factory creating instances of the given target type into the builder, e.g. for types without a public
+     * no-arg constructor. By default instances are created by the no-arg constructor.
+     *
+     * @param clazz   the target type
+     * @param factory the factory creating instances of the target type, e.g. a constructor reference
+     * @param <T>     the target type
+     *
+     * @return the original builder
+     */
+    public <T> BeanConverterBuilder registerFactory(Class<T> clazz, Supplier<? extends T> factory) {
+        Objects.requireNonNull(clazz, "clazz must not be null");
+        Objects.requireNonNull(factory, "factory must not be null");
+        factories.put(clazz, factory);
+        return this;
+    }
+
+    /**
+     * Ignore a property of the given target type when it is copied from the given source type, e.g. a property that
+     * must not be exposed or is set otherwise.
+     *
+     * @param source   the source type
+     * @param target   the target type
+     * @param property the name of the writable property of the target type
+     *
+     * @return the original builder
+     *
+     * @throws IllegalArgumentException if the target type has no such writable property, or either type is a
+     *                                  {@link Map}
+     */
+    public BeanConverterBuilder ignoreProperty(Class<?> source, Class<?> target, String property) {
+        rules(source, target).ignore(requireProperty(ReflectUtils.getBeanSetters(target), target, property));
+        return this;
+    }
+
+    /**
+     * Copy a property of the given source type to a property of another name of the given target type, e.g.
+     * <code>userId</code> to <code>id</code>. The target property is no longer copied from the source property of
+     * its own name.
+     *
+     * @param source         the source type
+     * @param target         the target type
+     * @param sourceProperty the name of the readable property of the source type
+     * @param targetProperty the name of the writable property of the target type
+     *
+     * @return the original builder
+     *
+     * @throws IllegalArgumentException if the source type or the target type has no such property, or either type is
+     *                                  a {@link Map}
+     */
+    public BeanConverterBuilder renameProperty(Class<?> source, Class<?> target, String sourceProperty,
+                                               String targetProperty) {
+        rules(source, target).rename(requireProperty(ReflectUtils.getBeanGetters(source), source, sourceProperty),
+                requireProperty(ReflectUtils.getBeanSetters(target), target, targetProperty));
+        return this;
+    }
+
+    /**
+     * Put a {@link TypeConverter} of a property of the given target type copied from the given source type into the
+     * builder, which takes precedence over the registered converters. The converter is called with the non-null values
+     * of the source property, which may be renamed, and must return values of the type of the target property.
+     *
+     * @param source    the source type
+     * @param target    the target type
+     * @param property  the name of the writable property of the target type
+     * @param converter the converter of the values of the property
+     *
+     * @return the original builder
+     *
+     * @throws IllegalArgumentException if the target type has no such writable property, or either type is a
+     *                                  {@link Map}
+     */
+    public BeanConverterBuilder registerPropertyConverter(Class<?> source, Class<?> target, String property,
+                                                          TypeConverter<?, ?> converter) {
+        Objects.requireNonNull(converter, "converter must not be null");
+        rules(source, target).convert(requireProperty(ReflectUtils.getBeanSetters(target), target, property),
+                converter);
+        return this;
+    }
+
+    /**
+     * Set the engine to copy properties. The default engine is {@link CopyEngine#CGLIB}.
+     *
+     * @param engine the engine to copy properties
+     *
+     * @return the original builder
+     */
+    public BeanConverterBuilder engine(CopyEngine engine) {
+        this.engine = Objects.requireNonNull(engine, "engine must not be null");
+        return this;
+    }
+
+    /**
+     * Limit the number of copiers cached by the converter. The least recently used copiers are evicted when the limit
+     * is exceeded. The converters resolved per value type and target type are limited likewise. The cache is unbounded
+     * by default, in which case the cglib {@link net.sf.cglib.beans.BeanCopier}s of {@link CopyEngine#CGLIB} are
+     * shared with the other unbounded converters, bounded by {@link BeanUtils#MAXIMUM_CACHE_SIZE_PROPERTY}. A bounded
+     * converter keeps its own.
+     *
+     * @param maximumCacheSize the maximum number of cached copiers, or zero if unbounded
+     *
+     * @return the original builder
+     */
+    public BeanConverterBuilder maximumCacheSize(int maximumCacheSize) {
+        if (maximumCacheSize < 0) {
+            throw new IllegalArgumentException("maximumCacheSize must not be negative");
+        }
+        this.maximumCacheSize = maximumCacheSize;
+        return this;
+    }
+
+    /**
+     * Set the metrics to record the copier cache and the conversions of the converter to, e.g. a
+     * {@link JmxConversionMetrics}. No metrics are recorded by default.
+     *
+     * @param metrics the metrics to record to
+     *
+     * @return the original builder
+     */
+    public BeanConverterBuilder metrics(ConversionMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics, "metrics must not be null");
+        return this;
+    }
+
+    /**
+     * Enable or disable deep conversion. A deep converter converts a nested bean to the type of the target property
+     * when no {@link TypeConverter} matches, including the beans in collections, arrays and maps, which are converted
+     * to the generic element types of the target property. Objects referenced more than once in the source graph,
+     * including cycles, are converted once. Deep conversion is disabled by default.
+     *
+     * @param deepConversion whether nested beans and containers are converted deeply
+     *
+     * @return the original builder
+     */
+    public BeanConverterBuilder deepConversion(boolean deepConversion) {
+        this.deepConversion = deepConversion;
+        return this;
+    }
+
+    /**
+     * Enable or disable strict mode. A strict converter validates the properties of a class pair when its copier is
+     * created, e.g. by {@link BeanConverter#prepare(Class, Class)} at startup, and throws an
+     * {@link IllegalArgumentException} listing the writable properties of the target type which are unmapped, whose
+     * declared source types no {@link TypeConverter} converts, or whose values may lose precision without a
+     * registered {@link TypeConverter}, e.g. from <code>long</code> to <code>double</code>.
+     * Such properties can be acknowledged by {@link #ignoreProperty} or {@link #registerPropertyConverter}. Copies are
+     * not checked, so a strict converter is as fast as a lenient one. The keys of a map are only known when it is
+     * copied, so a strict converter throws an {@link IllegalArgumentException} when a map is copied into a bean,
+     * while it copies beans and maps into maps, which keep every value. Strict mode is disabled by default, in which
+     * case properties that cannot be converted are set to null.
+     *
+     * @param strict whether the mapping of every class pair is validated
+     *
+     * @return the original builder
+     */
+    public BeanConverterBuilder strict(boolean strict) {
+        this.strict = strict;
+        return this;
+    }
+
     /**
      * Build a {@link BeanConverterImpl}.
      *
      * @return a {@link BeanConverterImpl}
      */
     public BeanConverter build() {
-        return new BeanConverterImpl(converters);
+        Map<Class<?>, Map<Class<?>, MappingRules>> mappingRules = new HashMap<>();
+        rules.forEach((source, targets) -> targets.forEach((target, builder) ->
+                mappingRules.computeIfAbsent(source, key -> new HashMap<>()).put(target, builder.build())));
+        return new BeanConverterImpl(converters, standardConverters, factories, engine, maximumCacheSize, metrics,
+                deepConversion, mappingRules, strict);
+    }
+
+    private MappingRules.Builder rules(Class<?> source, Class<?> target) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+        // Maps are copied by key whatever the rules are, so rules of maps would be silently ignored.
+        if (Map.class.isAssignableFrom(source) || Map.class.isAssignableFrom(target)) {
+            throw new IllegalArgumentException("mapping rules are not applicable to the map of " + source.getName()
+                    + " to " + target.getName());
+        }
+        return rules.computeIfAbsent(source, key -> new HashMap<>())
+                .computeIfAbsent(target, key -> new MappingRules.Builder());
+    }
+
+    private static String requireProperty(PropertyDescriptor[] properties, Class<?> type, String property) {
+        Objects.requireNonNull(property, "property must not be null");
+        if (Arrays.stream(properties).noneMatch(descriptor -> descriptor.getName().equals(property))) {
+            throw new IllegalArgumentException("no property " + property + " in " + type.getName());
+        }
+        return property;
     }
 }
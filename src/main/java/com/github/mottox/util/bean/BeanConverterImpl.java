@@ -22,11 +22,18 @@
 
 package com.github.mottox.util.bean;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.ClassUtils;
 
@@ -35,7 +42,8 @@ import net.sf.cglib.beans.BeanCopier;
 import net.sf.cglib.core.Converter;
 
 /**
- * Different from {@link BeanUtils}, this implementation supports JavaBean conversion with custom mapping strategy.
+ * Different from {@link BeanUtils}, this implementation supports JavaBean conversion with custom mapping strategy,
+ * and conversion between JavaBeans and maps of property names to values.
  * Since the internal property converter and BeanCopier map are not static, it is better to make the instance static
  * for global use.
  *
@@ -46,21 +54,109 @@ public class BeanConverterImpl implements BeanConverter {
     /**
      * The cglib converter that provides custom property conversion strategy.
      */
-    private final Converter converter;
+    private final ConverterAdapter converter;
 
     /**
-     * The map to store {@link BeanCopier} of source type and class type for conversion.
+     * The engine to copy properties.
      */
-    private final Map<String, BeanCopier> beanCopierMap;
+    private final CopyEngine engine;
+
+    /**
+     * Whether the {@link BeanCopier}s of {@link CopyEngine#CGLIB} are shared with other converters by
+     * {@link CopierRegistry}, which is the case unless the cache of this converter is bounded.
+     */
+    private final boolean sharedCopiers;
+
+    /**
+     * The map to store {@link Copier} of source type and class type for conversion.
+     */
+    private final ClassPairCache<Copier> beanCopierMap;
+
+    /**
+     * The function creating a {@link Copier} on a miss of <code>beanCopierMap</code>.
+     */
+    private final BiFunction<Class<?>, Class<?>, Copier> copierFactory;
+
+    /**
+     * The map to store {@link PartialCopier} of source type and class type for copying non-null properties.
+     */
+    private final ClassPairCache<PartialCopier> partialCopierMap;
+
+    /**
+     * The function creating a {@link PartialCopier} on a miss of <code>partialCopierMap</code>.
+     */
+    private final BiFunction<Class<?>, Class<?>, PartialCopier> partialCopierFactory;
+
+    /**
+     * The factories creating instances of target types, including the ones provided for this converter.
+     */
+    private final ClassValue<Supplier<?>> factories;
+
+    /**
+     * The cloning of beans to beans of the same class.
+     */
+    private final BeanCloner cloner;
+
+    /**
+     * The metrics to record to, or {@link ConversionMetrics#NONE}.
+     */
+    private final ConversionMetrics metrics;
+
+    /**
+     * The deep conversion of nested beans, or null if properties are converted shallowly.
+     */
+    private final DeepConversion deepConversion;
+
+    /**
+     * The conversion of collections, arrays and maps of which the elements need to be converted, created by
+     * {@link #getContainerConversion()} when the first mapping plan is created.
+     */
+    private volatile ContainerConversion containerConversion;
+
+    /**
+     * The mapping rules by source type and target type.
+     */
+    private final Map<Class<?>, Map<Class<?>, MappingRules>> rules;
+
+    /**
+     * Whether the mapping plans are validated when they are created.
+     */
+    private final boolean strict;
 
     /**
      * Construct a new instance of {@link BeanConverter}.
      *
-     * @param converters the provided type converters
+     * @param converters       the provided type converters
+     * @param standard         the standard converters, or null if they are not registered
+     * @param factories        the provided factories of target types
+     * @param engine           the engine to copy properties
+     * @param maximumCacheSize the maximum number of cached copiers and resolved converters, or zero if unbounded
+     * @param metrics          the metrics to record to
+     * @param deepConversion   whether nested beans and containers are converted deeply
+     * @param rules            the mapping rules by source type and target type
+     * @param strict           whether the mapping plans are validated when they are created
      */
-    BeanConverterImpl(List<TypeConverter<?, ?>> converters) {
-        this.converter = new ConverterAdapter(converters);
-        this.beanCopierMap = new ConcurrentHashMap<>();
+    BeanConverterImpl(List<TypeConverter<?, ?>> converters, StandardConverters standard,
+                      Map<Class<?>, Supplier<?>> factories, CopyEngine engine, int maximumCacheSize,
+                      ConversionMetrics metrics, boolean deepConversion,
+                      Map<Class<?>, Map<Class<?>, MappingRules>> rules, boolean strict) {
+        this.engine = engine;
+        this.sharedCopiers = maximumCacheSize == 0;
+        this.rules = rules;
+        this.strict = strict;
+        this.beanCopierMap = new ClassPairCache<>(maximumCacheSize);
+        this.copierFactory = this::createCopier;
+        this.partialCopierMap = new ClassPairCache<>(maximumCacheSize);
+        this.partialCopierFactory = this::createPartialCopier;
+        this.factories = new FactoryMap(factories);
+        this.cloner = new BeanCloner(this.factories::get, maximumCacheSize);
+        this.metrics = metrics;
+        this.deepConversion = deepConversion ? new DeepConversion(this::getCopier, this.factories::get) : null;
+        this.converter = new ConverterAdapter(converters, standard, maximumCacheSize, metrics,
+                this.deepConversion);
+        if (metrics != ConversionMetrics.NONE) {
+            metrics.registerCopierCache(this, BeanConverterImpl::cacheSize);
+        }
     }
 
     /**
@@ -76,8 +172,59 @@ public class BeanConverterImpl implements BeanConverter {
         Objects.requireNonNull(source, "source must not be null");
         Objects.requireNonNull(target, "target must not be null");
 
-        BeanCopier beanCopier = getBeanCopier(source.getClass(), target.getClass());
-        beanCopier.copy(source, target, converter);
+        Copier copier = getCopier(source.getClass(), target.getClass());
+        copier.copy(source, target);
+    }
+
+    /**
+     * Copy the non-null property values of the given source bean into the target bean like
+     * {@link #copyNonNull(Object, Object)}, and add the names of the properties whose values have changed to the
+     * given collection. The partial copier of a class pair is cached apart from its copier. The engines generating
+     * bytecode, {@link CopyEngine#CGLIB} and {@link CopyEngine#BYTECODE}, generate the null checks into the partial
+     * copier, the others check the values by a plan.
+     *
+     * @param source            the source bean
+     * @param target            the target bean
+     * @param changedProperties the collection to add the names of changed properties to, or null if they are not
+     *                          needed
+     */
+    @Override
+    public void copyNonNull(Object source, Object target, Collection<? super String> changedProperties) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+
+        getPartialCopier(source.getClass(), target.getClass()).copy(source, target, changedProperties);
+    }
+
+    /**
+     * Clone the given bean shallowly. The generated copier of its class assigns every property directly, and the
+     * clone is created by the factory of its class, including the ones provided for this converter.
+     *
+     * @param source the bean
+     * @param <T>    the type of bean
+     *
+     * @return a new bean of the same class
+     */
+    @Override
+    public <T> T clone(T source) {
+        Objects.requireNonNull(source, "source must not be null");
+        return cloner.clone(source);
+    }
+
+    /**
+     * Clone the given bean deeply. Properties of immutable types are assigned directly, while collections, arrays,
+     * maps, dates and nested beans are cloned. Objects referenced more than once, including cycles, are cloned once.
+     * The registered {@link TypeConverter}s are not used.
+     *
+     * @param source the bean
+     * @param <T>    the type of bean
+     *
+     * @return a new bean of the same class
+     */
+    @Override
+    public <T> T deepClone(T source) {
+        Objects.requireNonNull(source, "source must not be null");
+        return cloner.deepClone(source);
     }
 
     /**
@@ -92,41 +239,455 @@ public class BeanConverterImpl implements BeanConverter {
     @Override
     public <T> T convert(Object source, Class<T> clazz) {
         // Initialize a new instance of the target type.
-        T result;
-        try {
-            result = clazz.newInstance();
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException("fail to create instance of type" + clazz.getCanonicalName(), e);
-        }
+        T result = getFactory(clazz).get();
 
         copyProperties(source, result);
         return result;
     }
 
     /**
-     * Get the {@link BeanCopier} of source class and target class.
-     * Create a new one if it is not contained in <code>BEAN_COPIER_MAP</code>.
+     * Convert the given source bean to a map of its readable property names to values, in the order of the
+     * properties. The map is presized to the number of properties, and the copier from the bean class to
+     * {@link Map} is cached like the copier of any class pair.
+     *
+     * @param source the source bean
+     *
+     * @return the map of property names to values
+     */
+    @Override
+    public Map<String, Object> toMap(Object source) {
+        Objects.requireNonNull(source, "source must not be null");
+
+        Map<String, Object> result = new LinkedHashMap<>(MapCopiers.capacity(source.getClass()));
+        getCopier(source.getClass(), Map.class).copy(source, result);
+        return result;
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans of specified type in the same order.
+     * Null source beans are converted to null. The factory of target type is resolved once per batch, and the
+     * copier once per run of source beans of the same type.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    @Override
+    public <T> List<T> convertAll(Iterable<?> sources, Class<T> clazz) {
+        return bind(clazz).convertAll(sources);
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans of specified type in the same order.
+     * Null source beans are converted to null. The factory of target type is resolved once per batch, and the
+     * copier once per run of source beans of the same type.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    @Override
+    public <T> List<T> convertList(List<?> sources, Class<T> clazz) {
+        return bind(clazz).convertList(sources);
+    }
+
+    /**
+     * Convert the given source beans to an array of target beans of specified type in the same order.
+     * Null source beans are converted to null. The factory of target type is resolved once per batch, and the
+     * copier once per run of source beans of the same type.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the array of target beans of type <code>T</code>
+     */
+    @Override
+    public <T> T[] convertArray(Object[] sources, Class<T> clazz) {
+        return bind(clazz).convertArray(sources);
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans of specified type in the same order, in parallel on
+     * the common {@link ForkJoinPool}. Null source beans are converted to null. Collections of less than
+     * {@value ParallelConversion#THRESHOLD} source beans are converted sequentially.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    @Override
+    public <T> List<T> convertAllParallel(Collection<?> sources, Class<T> clazz) {
+        Supplier<T> factory = getFactory(clazz);
+        return ParallelConversion.convert(sources, () -> new BoundConverter<>(clazz, factory, this::getCopier), null);
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans of specified type in the same order, in parallel on
+     * the given executor. Null source beans are converted to null. Collections of less than
+     * {@value ParallelConversion#THRESHOLD} source beans are converted sequentially.
+     *
+     * @param sources  the source beans
+     * @param clazz    the class of target beans
+     * @param executor the executor to run the conversion
+     * @param <T>      the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    @Override
+    public <T> List<T> convertAllParallel(Collection<?> sources, Class<T> clazz, Executor executor) {
+        Objects.requireNonNull(executor, "executor must not be null");
+        Supplier<T> factory = getFactory(clazz);
+        return ParallelConversion.convert(sources, () -> new BoundConverter<>(clazz, factory, this::getCopier),
+                executor);
+    }
+
+    /**
+     * Get a function that converts source beans to target beans of specified type.
+     * Null source beans are converted to null. The factory of target type is resolved once, and the copier once
+     * per run of source beans of the same type.
+     *
+     * @param clazz the class of target beans
+     * @param <T>   the type of target beans
+     *
+     * @return the function converting source beans to target beans of type <code>T</code>
+     */
+    @Override
+    public <T> Function<Object, T> asFunction(Class<T> clazz) {
+        return bind(clazz);
+    }
+
+    /**
+     * Get a mapper of source beans of the given type to target beans of the given type, which is bound to the copier
+     * and the factory resolved right now. The copier is created if it is not cached, like
+     * {@link #prepare(Class, Class)} does.
+     *
+     * @param sourceType the type of source beans
+     * @param targetType the type of target beans
+     * @param <S>        the type of source beans
+     * @param <T>        the type of target beans
+     *
+     * @return the mapper of the source type to the target type
+     */
+    @Override
+    public <S, T> Mapper<S, T> mapper(Class<S> sourceType, Class<T> targetType) {
+        Objects.requireNonNull(sourceType, "sourceType must not be null");
+        Objects.requireNonNull(targetType, "targetType must not be null");
+
+        Supplier<T> factory;
+        try {
+            factory = getFactory(targetType);
+        } catch (RuntimeException e) {
+            // The target type is not instantiable, so the mapper only copies into target beans.
+            factory = () -> getFactory(targetType).get();
+        }
+        return new BoundMapper<>(sourceType, targetType, getCopier(sourceType, targetType), factory);
+    }
+
+    /**
+     * Prepare the conversion of the given source type to the given target type, so that the first conversion does
+     * not pay for creating the copier, resolving the converters of properties and creating the target factory.
+     *
+     * @param source the source type
+     * @param target the target type
+     */
+    @Override
+    public void prepare(Class<?> source, Class<?> target) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+
+        // Every engine resolves the converters of properties when the copier is created.
+        getCopier(source, target);
+        try {
+            factories.get(target);
+        } catch (RuntimeException e) {
+            // The target type is not instantiable, so it is only copied into.
+        }
+    }
+
+    /**
+     * Evict the cached copiers of which the source type or the target type is the given class, including the ones
+     * shared with other converters.
+     *
+     * @param clazz the class to evict
+     */
+    @Override
+    public void evict(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz must not be null");
+        beanCopierMap.evict(clazz);
+        partialCopierMap.evict(clazz);
+        converter.evict(clazz);
+        cloner.evict(clazz);
+        CopierRegistry.evict(clazz);
+    }
+
+    /**
+     * Evict the cached copiers of which the source type or the target type is loaded by the given class loader,
+     * including the ones shared with other converters, typically before the class loader is discarded.
+     *
+     * @param classLoader the class loader to evict
+     */
+    @Override
+    public void evict(ClassLoader classLoader) {
+        Objects.requireNonNull(classLoader, "classLoader must not be null");
+        beanCopierMap.evict(classLoader);
+        partialCopierMap.evict(classLoader);
+        converter.evict(classLoader);
+        cloner.evict(classLoader);
+        CopierRegistry.evict(classLoader);
+    }
+
+    /**
+     * Evict all cached copiers, including the ones shared with other converters, which create them again on their
+     * next copy.
+     */
+    @Override
+    public void clearCache() {
+        beanCopierMap.clear();
+        partialCopierMap.clear();
+        converter.clear();
+        cloner.clear();
+        CopierRegistry.clear();
+    }
+
+    /**
+     * Get the number of copiers cached by this converter, excluding the ones shared with other converters.
+     */
+    private int cacheSize() {
+        return beanCopierMap.size() + partialCopierMap.size() + cloner.size();
+    }
+
+    /**
+     * Bind a conversion to the given target type.
+     *
+     * @param clazz the class of target bean
+     * @param <T>   the type of target bean
+     *
+     * @return the conversion to the given target type
+     */
+    private <T> BoundConverter<T> bind(Class<T> clazz) {
+        return new BoundConverter<>(clazz, getFactory(clazz), this::getCopier);
+    }
+
+    /**
+     * Get the factory creating instances of the given class.
+     *
+     * @param clazz the class
+     * @param <T>   the type of instance
+     *
+     * @return the factory creating instances of the given class
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Supplier<T> getFactory(Class<T> clazz) {
+        return (Supplier<T>) factories.get(clazz);
+    }
+
+    /**
+     * Get the {@link Copier} of source class and target class.
+     * Create a new one if it is not contained in <code>beanCopierMap</code>.
+     *
+     * @param source the source class
+     * @param target the target class
+     *
+     * @return the copier of source class and target class
+     */
+    private Copier getCopier(Class<?> source, Class<?> target) {
+        if (metrics != ConversionMetrics.NONE) {
+            return Metering.get(beanCopierMap, source, target, copierFactory, metrics);
+        }
+        return beanCopierMap.get(source, target, copierFactory);
+    }
+
+    /**
+     * Create a new {@link Copier} of source class and target class by the engine of this converter, which records
+     * every copy if metrics are set.
+     *
+     * @param source the source class
+     * @param target the target class
+     *
+     * @return the copier of source class and target class
+     */
+    private Copier createCopier(Class<?> source, Class<?> target) {
+        Copier copier = createEngineCopier(source, target);
+        if (deepConversion != null) {
+            copier = deepConversion.copier(copier);
+        }
+        if (metrics != ConversionMetrics.NONE) {
+            return Metering.copier(source, target, copier, metrics);
+        }
+        return copier;
+    }
+
+    /**
+     * Get the {@link PartialCopier} of source class and target class.
+     * Create a new one if it is not contained in <code>partialCopierMap</code>.
+     *
+     * @param source the source class
+     * @param target the target class
+     *
+     * @return the partial copier of source class and target class
+     */
+    private PartialCopier getPartialCopier(Class<?> source, Class<?> target) {
+        if (metrics != ConversionMetrics.NONE) {
+            return Metering.get(partialCopierMap, source, target, partialCopierFactory, metrics);
+        }
+        return partialCopierMap.get(source, target, partialCopierFactory);
+    }
+
+    /**
+     * Create a new {@link PartialCopier} of source class and target class. A {@link BeanCopier} calls every setter,
+     * so the {@link CopyEngine#CGLIB} and {@link CopyEngine#LAMBDA} engines copy non-null properties through spun
+     * accessors, while {@link CopyEngine#BYTECODE} generates the null checks into its class.
+     *
+     * @param source the source class
+     * @param target the target class
+     *
+     * @return the partial copier of source class and target class
+     */
+    private PartialCopier createPartialCopier(Class<?> source, Class<?> target) {
+        MappingPlan plan = createPlan(source, target);
+        // A BeanCopier copies null values, so the CGLIB engine generates its partial copiers like BYTECODE.
+        PartialCopier copier = engine == CopyEngine.CGLIB || engine == CopyEngine.BYTECODE
+                ? BytecodeCopierGenerator.createPartial(plan) : LambdaCopier.partial(plan);
+        if (deepConversion != null) {
+            copier = deepConversion.partialCopier(copier);
+        }
+        if (metrics != ConversionMetrics.NONE) {
+            return Metering.partialCopier(source, target, copier, metrics);
+        }
+        return copier;
+    }
+
+    private Copier createEngineCopier(Class<?> source, Class<?> target) {
+        // Maps are copied by name whatever the engine is.
+        if (Map.class.isAssignableFrom(source)) {
+            if (Map.class.isAssignableFrom(target)) {
+                return MapCopiers.MAP_TO_MAP;
+            }
+            if (strict) {
+                throw new IllegalArgumentException("invalid mapping of " + source.getName() + " to "
+                        + target.getName() + ": the keys of a map cannot be validated before it is copied");
+            }
+            return MapCopiers.fromMap(target, converter);
+        }
+        if (Map.class.isAssignableFrom(target)) {
+            return MapCopiers.toMap(source);
+        }
+        switch (engine) {
+            case PLAN:
+                return new PlanCopier(createPlan(source, target));
+            case BYTECODE:
+                return BytecodeCopierGenerator.create(createPlan(source, target));
+            case LAMBDA:
+                return new LambdaCopier(createPlan(source, target));
+            case CGLIB:
+            default:
+                if (getRules(source, target) != MappingRules.NONE) {
+                    // A BeanCopier copies every property of the same name, so the rules are applied by a plan.
+                    return new LambdaCopier(createPlan(source, target));
+                }
+                BeanCopier beanCopier = sharedCopiers ? CopierRegistry.beanCopier(source, target)
+                        : CopierGenerator.beanCopier(source, target, true);
+                Converter propertyConverter = createPropertyConverter(source, target);
+                return (s, t) -> beanCopier.copy(s, t, propertyConverter);
+        }
+    }
+
+    /**
+     * Create the mapping plan of source class and target class, applying the mapping rules of the class pair.
+     * Every engine creates the plan of a class pair along with its copier, so a strict converter validates the
+     * plan here.
      *
      * @param source the source class
      * @param target the target class
      *
-     * @return the bean copier of source class and target class
+     * @return the mapping plan of source class and target class
+     *
+     * @throws IllegalArgumentException if the converter is strict and the plan is invalid
+     * @see MappingValidation
+     */
+    private MappingPlan createPlan(Class<?> source, Class<?> target) {
+        MappingRules pairRules = getRules(source, target);
+        MappingPlan plan = MappingPlan.create(source, target, converter, getContainerConversion(), pairRules);
+        if (strict) {
+            MappingValidation.validate(plan, converter, pairRules);
+        }
+        return plan;
+    }
+
+    /**
+     * Get the conversion of containers, creating it on first use. Racing threads may each create one, which is
+     * harmless since the conversion holds no state of its own.
+     *
+     * @return the conversion of containers
      */
-    private BeanCopier getBeanCopier(Class<?> source, Class<?> target) {
-        String key = generateKey(source, target);
-        return beanCopierMap.computeIfAbsent(key, x -> BeanCopier.create(source, target, true));
+    private ContainerConversion getContainerConversion() {
+        ContainerConversion conversion = containerConversion;
+        if (conversion == null) {
+            conversion = new ContainerConversion(factories::get, deepConversion);
+            containerConversion = conversion;
+        }
+        return conversion;
+    }
+
+    private MappingRules getRules(Class<?> source, Class<?> target) {
+        Map<Class<?>, MappingRules> targets = rules.get(source);
+        MappingRules pairRules = targets == null ? null : targets.get(target);
+        return pairRules == null ? MappingRules.NONE : pairRules;
     }
 
     /**
-     * Get key of <code>beanCopierMap</code> by source class and target class.
+     * Create the cglib converter of source class and target class. A {@link BeanCopier} only passes the raw type of
+     * a property to its converter, so the containers of which the elements need to be converted are bound from the
+     * mapping plan and looked up by the name of the setter, which is passed as context.
      *
      * @param source the source class
      * @param target the target class
      *
-     * @return the key of <code>beanCopierMap</code> by source class and target class
+     * @return the converter of the properties of source class and target class
      */
-    private String generateKey(Class<?> source, Class<?> target) {
-        return source.getCanonicalName().concat(target.getCanonicalName());
+    private Converter createPropertyConverter(Class<?> source, Class<?> target) {
+        Map<Object, TypeConverter<Object, Object>> containers = new HashMap<>();
+        for (MappingPlan.PropertyMapping mapping
+                : createPlan(source, target).getMappings()) {
+            if (ContainerConversion.isContainer(mapping.getConverter())) {
+                containers.put(mapping.getSetter().getName(), mapping.getConverter());
+            }
+        }
+        if (containers.isEmpty()) {
+            return converter;
+        }
+        return (value, targetType, context) -> {
+            TypeConverter<Object, Object> container = containers.get(context);
+            if (container == null) {
+                return converter.convert(value, targetType, context);
+            }
+            return value == null ? null : container.convert(value);
+        };
+    }
+
+    /**
+     * The factories of target types, which prefers the provided factories to the shared {@link InstanceFactories}.
+     */
+    private static class FactoryMap extends ClassValue<Supplier<?>> {
+
+        private final Map<Class<?>, Supplier<?>> factories;
+
+        FactoryMap(Map<Class<?>, Supplier<?>> factories) {
+            this.factories = new HashMap<>(factories);
+        }
+
+        @Override
+        protected Supplier<?> computeValue(Class<?> type) {
+            Supplier<?> factory = factories.get(type);
+            return factory != null ? factory : InstanceFactories.get(type);
+        }
     }
 
     /**
@@ -134,12 +695,73 @@ public class BeanConverterImpl implements BeanConverter {
      */
     static class ConverterAdapter implements Converter {
 
-        private final Map<Class, List<ResolvedTypeConverter>> converterMap;
+        /**
+         * The converter that returns the value itself, used when the target type is assignable from the value type.
+         */
+        static final TypeConverter<Object, Object> PASS_THROUGH = value -> value;
+
+        /**
+         * The converter that returns null, used when no {@link TypeConverter} is able to convert the value.
+         */
+        static final TypeConverter<Object, Object> NO_MATCH = value -> null;
+
+        /**
+         * The registered converters grouped by source type, in the order of registration.
+         */
+        private final Map<Class<?>, List<ResolvedTypeConverter<?, ?>>> converterMap;
+
+        /**
+         * The standard converters looked up when no registered converter matches, or null if they are not
+         * registered.
+         */
+        private final StandardConverters standard;
+
+        /**
+         * The dispatch table of resolved converters by value type and target type.
+         */
+        private final ClassPairCache<TypeConverter<Object, Object>> dispatchTable;
+
+        /**
+         * The function resolving the converter on a miss of <code>dispatchTable</code>, kept in a field so that a
+         * lookup does not allocate a new function.
+         */
+        private final BiFunction<Class<?>, Class<?>, TypeConverter<Object, Object>> resolver;
+
+        /**
+         * The metrics to record to, or {@link ConversionMetrics#NONE}.
+         */
+        private final ConversionMetrics metrics;
+
+        /**
+         * The deep conversion of nested beans, or null if values without a converter are converted to null.
+         */
+        private final DeepConversion deepConversion;
 
         ConverterAdapter(List<TypeConverter<?, ?>> converterMap) {
-            this.converterMap = converterMap.stream()
-                    .map(this::resolveTypeConverter)
-                    .collect(Collectors.groupingBy(ResolvedTypeConverter::getSourceType));
+            this(converterMap, ConversionMetrics.NONE);
+        }
+
+        ConverterAdapter(List<TypeConverter<?, ?>> converterMap, ConversionMetrics metrics) {
+            this(converterMap, metrics, null);
+        }
+
+        ConverterAdapter(List<TypeConverter<?, ?>> converterMap, ConversionMetrics metrics,
+                         DeepConversion deepConversion) {
+            this(converterMap, null, 0, metrics, deepConversion);
+        }
+
+        ConverterAdapter(List<TypeConverter<?, ?>> converterMap, StandardConverters standard, int maximumCacheSize,
+                         ConversionMetrics metrics, DeepConversion deepConversion) {
+            this.standard = standard;
+            this.converterMap = new LinkedHashMap<>();
+            for (TypeConverter<?, ?> converter : converterMap) {
+                ResolvedTypeConverter<?, ?> resolved = resolveTypeConverter(converter);
+                this.converterMap.computeIfAbsent(resolved.getSourceType(), key -> new ArrayList<>()).add(resolved);
+            }
+            this.dispatchTable = new ClassPairCache<>(maximumCacheSize);
+            this.resolver = metrics != ConversionMetrics.NONE ? this::resolveMetered : this::resolve;
+            this.metrics = metrics;
+            this.deepConversion = deepConversion;
         }
 
         @Override
@@ -147,9 +769,108 @@ public class BeanConverterImpl implements BeanConverter {
             if (value == null) {
                 return null;
             }
+            return lookup(value.getClass(), targetType).convert(value);
+        }
+
+        /**
+         * Look up the converter for values of the given type to the given target type.
+         *
+         * @param sourceType the type of value
+         * @param targetType the target type
+         *
+         * @return the converter, which is {@link #PASS_THROUGH} or {@link #NO_MATCH} if no conversion is needed or
+         * possible
+         */
+        TypeConverter<Object, Object> lookup(Class<?> sourceType, Class<?> targetType) {
+            return dispatchTable.get(sourceType, targetType, resolver);
+        }
+
+        /**
+         * Evict the resolved converters of which the value type or the target type is the given class.
+         *
+         * @param clazz the class to evict
+         */
+        void evict(Class<?> clazz) {
+            dispatchTable.evict(clazz);
+        }
+
+        /**
+         * Evict the resolved converters of which the value type or the target type is loaded by the given class
+         * loader.
+         *
+         * @param classLoader the class loader to evict
+         */
+        void evict(ClassLoader classLoader) {
+            dispatchTable.evict(classLoader);
+        }
+
+        /**
+         * Evict all resolved converters.
+         */
+        void clear() {
+            dispatchTable.clear();
+        }
+
+        /**
+         * Determine if values of the given type can be converted to the given target type, without caching the
+         * converter.
+         *
+         * @param sourceType the type of value
+         * @param targetType the target type
+         *
+         * @return true if the value can be assigned or a converter matches
+         */
+        boolean canConvert(Class<?> sourceType, Class<?> targetType) {
+            return resolve(sourceType, targetType) != NO_MATCH;
+        }
+
+        /**
+         * Determine if values of some subtype of the given type can be converted to the given target type by a
+         * registered or standard converter, which is resolved by the types of values at runtime.
+         *
+         * @param sourceType the declared type of values
+         * @param targetType the target type
+         *
+         * @return true if a converter of a subtype matches
+         */
+        boolean canConvertSubtype(Class<?> sourceType, Class<?> targetType) {
+            for (Map.Entry<Class<?>, List<ResolvedTypeConverter<?, ?>>> entry : converterMap.entrySet()) {
+                if (sourceType.isAssignableFrom(entry.getKey())) {
+                    for (ResolvedTypeConverter<?, ?> converter : entry.getValue()) {
+                        if (ClassUtils.isAssignable(converter.getTargetType(), targetType, true)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return standard != null && standard.hasSubtypeConverter(sourceType, targetType);
+        }
 
-            Class sourceType = value.getClass();
+        /**
+         * Determine if values of the given type may lose precision when converted to the given target type, without
+         * caching the converter. A value assigned directly loses precision if it is widened from an integral type to
+         * a floating-point type that cannot represent all its values, e.g. from <code>long</code> to
+         * <code>double</code>. A converted value loses precision only by a lossy standard converter, since the
+         * registered converters are registered on purpose.
+         *
+         * @param sourceType the type of value
+         * @param targetType the target type
+         *
+         * @return true if the value may lose precision
+         */
+        boolean isLossy(Class<?> sourceType, Class<?> targetType) {
+            TypeConverter<Object, Object> resolved = resolve(sourceType, targetType);
+            if (resolved == PASS_THROUGH) {
+                Class<?> source = ClassUtils.wrapperToPrimitive(sourceType);
+                Class<?> target = targetType.isPrimitive() ? targetType : ClassUtils.wrapperToPrimitive(targetType);
+                return (source == int.class || source == long.class) && target == float.class
+                        || source == long.class && target == double.class;
+            }
+            return standard != null && standard.isLossy(resolved);
+        }
 
+        @SuppressWarnings("unchecked")
+        private TypeConverter<Object, Object> resolve(Class<?> sourceType, Class<?> targetType) {
             /*
              * Check if target type is assignable from source type.
              * If true, it's okay to copy property from source to target.
@@ -159,29 +880,71 @@ public class BeanConverterImpl implements BeanConverter {
              * it's a good idea to use ClassUtils from Apache Commons to simplify code.
              */
             if (ClassUtils.isAssignable(sourceType, targetType, true)) {
-                return value;
+                return PASS_THROUGH;
             }
 
             //  Try to find mapping strategy from converters.
-            for (Map.Entry<Class, List<ResolvedTypeConverter>> entry : converterMap.entrySet()) {
-                Class converterSourceType = entry.getKey();
-                List<ResolvedTypeConverter> converters = entry.getValue();
+            for (Map.Entry<Class<?>, List<ResolvedTypeConverter<?, ?>>> entry : converterMap.entrySet()) {
+                Class<?> converterSourceType = entry.getKey();
+                List<ResolvedTypeConverter<?, ?>> converters = entry.getValue();
 
                 // Determine if the source type of converter is assignable from the type of value
                 if (ClassUtils.isAssignable(sourceType, converterSourceType, true)) {
-                    for (ResolvedTypeConverter converter : converters) {
+                    for (ResolvedTypeConverter<?, ?> converter : converters) {
                         // Determine if the target type to convert is assignable from the target type of converter
                         if (ClassUtils.isAssignable(converter.getTargetType(), targetType, true)) {
-                            @SuppressWarnings("unchecked")
-                            Object result = converter.convert(value);
-                            return result;
+                            return (TypeConverter<Object, Object>) converter;
                         }
                     }
                 }
             }
 
+            // Fall back to the standard converters, which are looked up by type rather than scanned
+            if (standard != null) {
+                ResolvedTypeConverter converter = standard.find(sourceType, targetType);
+                if (converter != null) {
+                    return converter;
+                }
+            }
+
+            // Convert the value to a nested bean if deep conversion is enabled
+            if (deepConversion != null) {
+                TypeConverter<Object, Object> bean = deepConversion.bean(sourceType, targetType);
+                if (bean != null) {
+                    return bean;
+                }
+            }
+
             // Return null if unable to convert value
-            return null;
+            return NO_MATCH;
+        }
+
+        /**
+         * Resolve the converter like {@link #resolve(Class, Class)}, wrapped to record its invocations.
+         * {@link #PASS_THROUGH} is returned as is, since it is compared by identity to skip conversion.
+         */
+        private TypeConverter<Object, Object> resolveMetered(Class<?> sourceType, Class<?> targetType) {
+            TypeConverter<Object, Object> resolved = resolve(sourceType, targetType);
+            if (resolved == PASS_THROUGH) {
+                return resolved;
+            }
+            if (resolved == NO_MATCH) {
+                return value -> {
+                    metrics.noConverterMatched(sourceType, targetType);
+                    return null;
+                };
+            }
+            if (!(resolved instanceof ResolvedTypeConverter)) {
+                // Nested beans are recorded by the copiers of their class pairs.
+                return resolved;
+            }
+            ResolvedTypeConverter<?, ?> converter = (ResolvedTypeConverter<?, ?>) resolved;
+            Class<?> converterSourceType = converter.getSourceType();
+            Class<?> converterTargetType = converter.getTargetType();
+            return value -> {
+                metrics.converterInvoked(converterSourceType, converterTargetType);
+                return resolved.convert(value);
+            };
         }
 
         @SuppressWarnings("unchecked")
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declare a class pair an interface maps at compile time.
+ * <p>
+ * For an interface annotated by one or more {@link BeanMapping}s, the annotation processor shipped with this library
+ * generates an implementation of {@link BeanConverter} named after the interface with the suffix <code>Impl</code>.
+ * The implementation copies the properties of the declared pairs by plain Java code: properties are matched by name
+ * like {@link BeanConverterImpl} does, and the given {@link TypeConverter}s are resolved by the declared types of the
+ * properties and called directly. Pairs that are not declared are rejected by an {@link IllegalArgumentException}.
+ *
+ * <pre>
+ * &#64;BeanMapping(source = SourceBean.class, target = TargetBean.class, converters = GenderConverter.class)
+ * public interface SourceMapper extends BeanConverter {
+ * }
+ *
+ * BeanConverter converter = new SourceMapperImpl();
+ * </pre>
+ *
+ * @author Robin Wang
+ * @see com.github.mottox.util.bean.processor.BeanMappingProcessor
+ */
+@Documented
+@Repeatable(BeanMappings.class)
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface BeanMapping {
+
+    /**
+     * The source type.
+     *
+     * @return the source type
+     */
+    Class<?> source();
+
+    /**
+     * The target type.
+     *
+     * @return the target type
+     */
+    Class<?> target();
+
+    /**
+     * The converters of properties, in the order they are resolved like the converters registered to a
+     * {@link BeanConverterBuilder}. Every converter must be a class with a public no-arg constructor that implements
+     * {@link TypeConverter} with concrete type arguments.
+     *
+     * @return the converters of properties
+     */
+    Class<? extends TypeConverter<?, ?>>[] converters() default {};
+
+}
@@ -22,9 +22,11 @@
 
 package com.github.mottox.util.bean;
 
-import java.util.Map;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 import net.sf.cglib.beans.BeanCopier;
 
@@ -35,10 +37,48 @@ import net.sf.cglib.beans.BeanCopier;
  */
 public class BeanUtils {
 
+    /**
+     * The name of the system property that specifies the maximum number of cached {@link BeanCopier}s, which also
+     * bounds the copiers shared by the unbounded {@link BeanConverter}s. The cache is unbounded if the property is
+     * absent or zero.
+     */
+    public static final String MAXIMUM_CACHE_SIZE_PROPERTY = "com.github.mottox.util.bean.BeanUtils.maximumCacheSize";
+
     /**
      * The map to store {@link BeanCopier} of source type and class type for conversion.
      */
-    private static final Map<String, BeanCopier> BEAN_COPIER_MAP = new ConcurrentHashMap<>();
+    private static final ClassPairCache<BeanCopier> BEAN_COPIER_MAP =
+            new ClassPairCache<>(Integer.getInteger(MAXIMUM_CACHE_SIZE_PROPERTY, 0));
+
+    /**
+     * The function creating a {@link BeanCopier} on a miss of <code>BEAN_COPIER_MAP</code>.
+     */
+    private static final BiFunction<Class<?>, Class<?>, BeanCopier> BEAN_COPIER_FACTORY =
+            (source, target) -> CopierGenerator.beanCopier(source, target, false);
+
+    /**
+     * The map to store {@link PartialCopier} of source type and class type for copying non-null properties.
+     */
+    private static final ClassPairCache<PartialCopier> PARTIAL_COPIER_MAP =
+            new ClassPairCache<>(Integer.getInteger(MAXIMUM_CACHE_SIZE_PROPERTY, 0));
+
+    /**
+     * The function creating a {@link PartialCopier} on a miss of <code>PARTIAL_COPIER_MAP</code>.
+     */
+    private static final BiFunction<Class<?>, Class<?>, PartialCopier> PARTIAL_COPIER_FACTORY =
+            (source, target) -> BytecodeCopierGenerator.createPartial(MappingPlan.assignableTypes(source, target));
+
+    /**
+     * The cloning of beans to beans of the same class.
+     */
+    private static final BeanCloner CLONER =
+            new BeanCloner(InstanceFactories::get, Integer.getInteger(MAXIMUM_CACHE_SIZE_PROPERTY, 0));
+
+    /**
+     * The copiers recording to the metrics set by {@link #setMetrics(ConversionMetrics)}, or null if no metrics are
+     * recorded.
+     */
+    private static volatile MeteredCopiers metered;
 
     /**
      * Private constructor.
@@ -58,10 +98,88 @@ public class BeanUtils {
         Objects.requireNonNull(source, "source must not be null");
         Objects.requireNonNull(target, "target must not be null");
 
-        BeanCopier beanCopier = getBeanCopier(source.getClass(), target.getClass());
+        MeteredCopiers metered = BeanUtils.metered;
+        if (metered != null) {
+            metered.copier(source.getClass(), target.getClass()).copy(source, target);
+            return;
+        }
+
+        BeanCopier beanCopier = BEAN_COPIER_MAP.get(source.getClass(), target.getClass(), BEAN_COPIER_FACTORY);
         beanCopier.copy(source, target, null);
     }
 
+    /**
+     * Copy the non-null property values of the given source bean into the target bean, e.g. for partial updates.
+     * Like {@link #copyProperties(Object, Object)}, only the properties whose target types are assignable from their
+     * source types are copied, e.g. an <code>ArrayList</code> to a <code>List</code>. The null check is generated
+     * into the copier of the class pair, which is cached apart from the {@link BeanCopier}s.
+     *
+     * @param source the source bean
+     * @param target the target bean
+     */
+    public static void copyNonNull(Object source, Object target) {
+        copyNonNull(source, target, null);
+    }
+
+    /**
+     * Copy the non-null property values of the given source bean into the target bean like
+     * {@link #copyNonNull(Object, Object)}, and add the names of the properties whose values have changed to the
+     * given collection. A value has changed unless it equals the current value of the target bean.
+     *
+     * @param source            the source bean
+     * @param target            the target bean
+     * @param changedProperties the collection to add the names of changed properties to, or null if they are not
+     *                          needed
+     */
+    public static void copyNonNull(Object source, Object target, Collection<? super String> changedProperties) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+
+        Class<?> sourceType = source.getClass();
+        Class<?> targetType = target.getClass();
+        MeteredCopiers metered = BeanUtils.metered;
+        if (metered != null) {
+            metered.partialCopier(sourceType, targetType).copy(source, target, changedProperties);
+            return;
+        }
+
+        PARTIAL_COPIER_MAP.get(sourceType, targetType, PARTIAL_COPIER_FACTORY).copy(source, target,
+                changedProperties);
+    }
+
+    /**
+     * Clone the given bean shallowly, e.g. for a defensive copy, so the clone shares the values of its properties
+     * with the bean. Unlike <code>convert(source, source.getClass())</code>, the bean is copied by a generated copier
+     * specialized for its class, which assigns every property directly.
+     *
+     * @param source the bean
+     * @param <T>    the type of bean
+     *
+     * @return a new bean of the same class
+     */
+    public static <T> T clone(T source) {
+        Objects.requireNonNull(source, "source must not be null");
+        return CLONER.clone(source);
+    }
+
+    /**
+     * Clone the given bean deeply, so the clone shares no mutable collections, arrays, maps, dates or nested beans
+     * with the bean. Values of immutable types, such as strings, boxed numbers, enums and the types of
+     * <code>java.time</code>, are shared, as are other types of the JDK. Collections and maps are copied into new
+     * instances of their classes, or of {@link java.util.ArrayList}, {@link java.util.LinkedHashSet},
+     * {@link java.util.ArrayDeque} or {@link java.util.LinkedHashMap} if their classes have no public no-arg
+     * constructor. Objects referenced more than once, including cycles, are cloned once.
+     *
+     * @param source the bean
+     * @param <T>    the type of bean
+     *
+     * @return a new bean of the same class
+     */
+    public static <T> T deepClone(T source) {
+        Objects.requireNonNull(source, "source must not be null");
+        return CLONER.deepClone(source);
+    }
+
     /**
      * Convert the given source bean to a target bean of specified type.
      *
@@ -73,42 +191,256 @@ public class BeanUtils {
      */
     public static <T> T convert(Object source, Class<T> clazz) {
         // Initialize a new instance of the target type.
-        T result;
-        try {
-            result = clazz.newInstance();
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException("fail to create instance of type" + clazz.getCanonicalName(), e);
-        }
+        T result = InstanceFactories.get(clazz).get();
 
         copyProperties(source, result);
         return result;
     }
 
     /**
-     * Get the {@link BeanCopier} of source class and target class.
-     * Create a new one if it is not contained in <code>BEAN_COPIER_MAP</code>.
+     * Convert the given source beans to a list of target beans of specified type in the same order.
+     * Null source beans are converted to null. The factory of target type is resolved once per batch, and the
+     * {@link BeanCopier} once per run of source beans of the same type.
      *
-     * @param source the source class
-     * @param target the target class
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    public static <T> List<T> convertAll(Iterable<?> sources, Class<T> clazz) {
+        return bind(clazz).convertAll(sources);
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans of specified type in the same order.
+     * Null source beans are converted to null. The factory of target type is resolved once per batch, and the
+     * {@link BeanCopier} once per run of source beans of the same type.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the list of target beans of type <code>T</code>
+     */
+    public static <T> List<T> convertList(List<?> sources, Class<T> clazz) {
+        return bind(clazz).convertList(sources);
+    }
+
+    /**
+     * Convert the given source beans to an array of target beans of specified type in the same order.
+     * Null source beans are converted to null. The factory of target type is resolved once per batch, and the
+     * {@link BeanCopier} once per run of source beans of the same type.
+     *
+     * @param sources the source beans
+     * @param clazz   the class of target beans
+     * @param <T>     the type of target beans
+     *
+     * @return the array of target beans of type <code>T</code>
+     */
+    public static <T> T[] convertArray(Object[] sources, Class<T> clazz) {
+        return bind(clazz).convertArray(sources);
+    }
+
+    /**
+     * Get a mapper of source beans of the given type to target beans of the given type, which is bound to the
+     * {@link BeanCopier} and the factory resolved right now, e.g. to be stored in a static final field where the types
+     * are fixed.
      *
-     * @return the bean copier of source class and target class
+     * @param sourceType the type of source beans
+     * @param targetType the type of target beans
+     * @param <S>        the type of source beans
+     * @param <T>        the type of target beans
+     *
+     * @return the mapper of the source type to the target type
+     */
+    public static <S, T> Mapper<S, T> mapper(Class<S> sourceType, Class<T> targetType) {
+        Objects.requireNonNull(sourceType, "sourceType must not be null");
+        Objects.requireNonNull(targetType, "targetType must not be null");
+
+        Supplier<T> factory;
+        try {
+            factory = InstanceFactories.get(targetType);
+        } catch (RuntimeException e) {
+            // The target type is not instantiable, so the mapper only copies into target beans.
+            factory = () -> InstanceFactories.get(targetType).get();
+        }
+        return new BoundMapper<>(sourceType, targetType, getCopier(sourceType, targetType), factory);
+    }
+
+    /**
+     * Prepare the conversion of the given source type to the given target type, so that the first conversion does
+     * not pay for creating the {@link BeanCopier} and the target factory.
+     *
+     * @param source the source type
+     * @param target the target type
+     */
+    public static void prepare(Class<?> source, Class<?> target) {
+        Objects.requireNonNull(source, "source must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+
+        getCopier(source, target);
+        try {
+            InstanceFactories.get(target);
+        } catch (RuntimeException e) {
+            // The target type is not instantiable, so it is only copied into.
+        }
+    }
+
+    /**
+     * Prepare the conversions of the given source types to the target types declared by their {@link Convertible}
+     * annotations, typically at startup.
+     *
+     * @param sources the source types annotated by {@link Convertible}
+     *
+     * @throws IllegalArgumentException if a source type is not annotated by {@link Convertible}
+     */
+    public static void prepareAll(Class<?>... sources) {
+        for (Class<?> source : sources) {
+            for (Class<?> target : CopierGenerator.targets(source)) {
+                prepare(source, target);
+            }
+        }
+    }
+
+    /**
+     * Evict the cached {@link BeanCopier}s of which the source type or the target type is the given class.
+     *
+     * @param clazz the class to evict
+     */
+    public static void evict(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz must not be null");
+        BEAN_COPIER_MAP.evict(clazz);
+        PARTIAL_COPIER_MAP.evict(clazz);
+        CLONER.evict(clazz);
+        MeteredCopiers metered = BeanUtils.metered;
+        if (metered != null) {
+            metered.copiers.evict(clazz);
+            metered.partialCopiers.evict(clazz);
+        }
+    }
+
+    /**
+     * Evict the cached {@link BeanCopier}s of which the source type or the target type is loaded by the given class
+     * loader, typically before the class loader is discarded.
+     *
+     * @param classLoader the class loader to evict
+     */
+    public static void evict(ClassLoader classLoader) {
+        Objects.requireNonNull(classLoader, "classLoader must not be null");
+        BEAN_COPIER_MAP.evict(classLoader);
+        PARTIAL_COPIER_MAP.evict(classLoader);
+        CLONER.evict(classLoader);
+        MeteredCopiers metered = BeanUtils.metered;
+        if (metered != null) {
+            metered.copiers.evict(classLoader);
+            metered.partialCopiers.evict(classLoader);
+        }
+    }
+
+    /**
+     * Evict all cached {@link BeanCopier}s.
+     */
+    public static void clearCache() {
+        BEAN_COPIER_MAP.clear();
+        PARTIAL_COPIER_MAP.clear();
+        CLONER.clear();
+        MeteredCopiers metered = BeanUtils.metered;
+        if (metered != null) {
+            metered.copiers.clear();
+            metered.partialCopiers.clear();
+        }
+    }
+
+    /**
+     * Set the metrics to record the {@link BeanCopier} cache and the conversions of this class to, e.g. a
+     * {@link JmxConversionMetrics}. No metrics are recorded by default. The copiers recording to the metrics are
+     * created once per class pair and cached until the metrics are set again.
+     *
+     * @param metrics the metrics to record to, or {@link ConversionMetrics#NONE} to stop recording
+     */
+    public static void setMetrics(ConversionMetrics metrics) {
+        Objects.requireNonNull(metrics, "metrics must not be null");
+        if (metrics == ConversionMetrics.NONE) {
+            BeanUtils.metered = null;
+            return;
+        }
+        metrics.registerCopierCache(BeanUtils.class, owner -> cacheSize());
+        BeanUtils.metered = new MeteredCopiers(metrics);
+    }
+
+    /**
+     * Bind a conversion to the given target type.
+     *
+     * @param clazz the class of target bean
+     * @param <T>   the type of target bean
+     *
+     * @return the conversion to the given target type
      */
-    private static BeanCopier getBeanCopier(Class<?> source, Class<?> target) {
-        String key = generateKey(source, target);
-        return BEAN_COPIER_MAP.computeIfAbsent(key, x -> BeanCopier.create(source, target, false));
+    private static <T> BoundConverter<T> bind(Class<T> clazz) {
+        return new BoundConverter<>(clazz, InstanceFactories.get(clazz), BeanUtils::getCopier);
     }
 
     /**
-     * Get key of <code>BEAN_COPIER_MAP</code> by source class and target class.
+     * Get the {@link Copier} of source class and target class, which copies by the {@link BeanCopier}.
      *
      * @param source the source class
      * @param target the target class
      *
-     * @return the key of <code>BEAN_COPIER_MAP</code> by source class and target class
+     * @return the copier of source class and target class
      */
-    private static String generateKey(Class<?> source, Class<?> target) {
-        return source.getCanonicalName().concat(target.getCanonicalName());
+    private static Copier getCopier(Class<?> source, Class<?> target) {
+        MeteredCopiers metered = BeanUtils.metered;
+        if (metered != null) {
+            return metered.copier(source, target);
+        }
+
+        BeanCopier beanCopier = BEAN_COPIER_MAP.get(source, target, BEAN_COPIER_FACTORY);
+        return (s, t) -> beanCopier.copy(s, t, null);
     }
 
-}
+    /**
+     * Get the number of copiers cached by this class.
+     */
+    private static int cacheSize() {
+        return BEAN_COPIER_MAP.size() + PARTIAL_COPIER_MAP.size() + CLONER.size();
+    }
+
+    /**
+     * The copiers recording to the given metrics, which wrap the cached {@link BeanCopier}s and partial copiers once
+     * per class pair, so a copy does not allocate a wrapper.
+     */
+    private static final class MeteredCopiers {
+
+        private final ConversionMetrics metrics;
+
+        private final ClassPairCache<Copier> copiers;
+
+        private final BiFunction<Class<?>, Class<?>, Copier> copierFactory;
+
+        private final ClassPairCache<PartialCopier> partialCopiers;
 
+        private final BiFunction<Class<?>, Class<?>, PartialCopier> partialCopierFactory;
+
+        MeteredCopiers(ConversionMetrics metrics) {
+            this.metrics = metrics;
+            this.copiers = new ClassPairCache<>(Integer.getInteger(MAXIMUM_CACHE_SIZE_PROPERTY, 0));
+            this.copierFactory = (source, target) -> {
+                BeanCopier beanCopier = BEAN_COPIER_MAP.get(source, target, BEAN_COPIER_FACTORY);
+                return Metering.copier(source, target, (s, t) -> beanCopier.copy(s, t, null), metrics);
+            };
+            this.partialCopiers = new ClassPairCache<>(Integer.getInteger(MAXIMUM_CACHE_SIZE_PROPERTY, 0));
+            this.partialCopierFactory = (source, target) -> Metering.partialCopier(source, target,
+                    PARTIAL_COPIER_MAP.get(source, target, PARTIAL_COPIER_FACTORY), metrics);
+        }
+
+        Copier copier(Class<?> source, Class<?> target) {
+            return Metering.get(copiers, source, target, copierFactory, metrics);
+        }
+
+        PartialCopier partialCopier(Class<?> source, Class<?> target) {
+            return Metering.get(partialCopiers, source, target, partialCopierFactory, metrics);
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A conversion to a fixed target type with the factory of the target type resolved ahead of time.
+ * <p>
+ * The copier of the last seen source type is remembered, so converting a sequence of beans of the same type looks up
+ * the copier only once. Null sources are converted to null.
+ *
+ * @param <T> the target type
+ *
+ * @author Robin Wang
+ */
+final class BoundConverter<T> implements Function<Object, T> {
+
+    private final Class<T> clazz;
+
+    private final Supplier<T> factory;
+
+    private final BiFunction<Class<?>, Class<?>, Copier> copiers;
+
+    /**
+     * The last seen source type and its copier, which is replaced rather than mutated so that it can be shared
+     * between threads without synchronization.
+     */
+    private Binding binding;
+
+    /**
+     * Construct a new conversion to the given target type.
+     *
+     * @param clazz   the class of target bean
+     * @param factory the factory creating target beans
+     * @param copiers the function looking up the copier of a source class and a target class
+     */
+    BoundConverter(Class<T> clazz, Supplier<T> factory, BiFunction<Class<?>, Class<?>, Copier> copiers) {
+        this.clazz = Objects.requireNonNull(clazz, "clazz must not be null");
+        this.factory = factory;
+        this.copiers = copiers;
+    }
+
+    /**
+     * Convert the given source bean to a target bean.
+     *
+     * @param source the source bean
+     *
+     * @return the target bean, or null if the source bean is null
+     */
+    @Override
+    public T apply(Object source) {
+        if (source == null) {
+            return null;
+        }
+        T result = factory.get();
+        getCopier(source.getClass()).copy(source, result);
+        return result;
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans in the same order.
+     *
+     * @param sources the source beans
+     *
+     * @return the list of target beans
+     */
+    List<T> convertAll(Iterable<?> sources) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        if (sources instanceof List && sources instanceof RandomAccess) {
+            return convertList((List<?>) sources);
+        }
+        List<T> result = sources instanceof Collection
+                ? new ArrayList<>(((Collection<?>) sources).size()) : new ArrayList<>();
+        for (Object source : sources) {
+            result.add(apply(source));
+        }
+        return result;
+    }
+
+    /**
+     * Convert the given source beans to a list of target beans in the same order.
+     *
+     * @param sources the source beans
+     *
+     * @return the list of target beans
+     */
+    List<T> convertList(List<?> sources) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        if (!(sources instanceof RandomAccess)) {
+            return convertAll(sources);
+        }
+        int size = sources.size();
+        List<T> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(apply(sources.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Convert the given source beans to an array of target beans in the same order.
+     *
+     * @param sources the source beans
+     *
+     * @return the array of target beans
+     */
+    T[] convertArray(Object[] sources) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        @SuppressWarnings("unchecked")
+        T[] result = (T[]) Array.newInstance(clazz, sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            result[i] = apply(sources[i]);
+        }
+        return result;
+    }
+
+    private Copier getCopier(Class<?> sourceType) {
+        Binding current = binding;
+        if (current == null || current.sourceType != sourceType) {
+            current = new Binding(sourceType, copiers.apply(sourceType, clazz));
+            binding = current;
+        }
+        return current.copier;
+    }
+
+    /**
+     * A source type and its copier.
+     */
+    private static final class Binding {
+
+        private final Class<?> sourceType;
+
+        private final Copier copier;
+
+        Binding(Class<?> sourceType, Copier copier) {
+            this.sourceType = sourceType;
+            this.copier = copier;
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Mapper} bound to the resolved copier and factory of its class pair.
+ *
+ * @param <S> the type of source bean
+ * @param <T> the type of target bean
+ *
+ * @author Robin Wang
+ */
+final class BoundMapper<S, T> implements Mapper<S, T> {
+
+    private final Class<S> sourceType;
+
+    private final Class<T> targetType;
+
+    private final Copier copier;
+
+    private final Supplier<? extends T> factory;
+
+    /**
+     * Construct a new mapper.
+     *
+     * @param sourceType the type of source beans
+     * @param targetType the type of target beans
+     * @param copier     the copier of the source type and the target type
+     * @param factory    the factory of target beans
+     */
+    BoundMapper(Class<S> sourceType, Class<T> targetType, Copier copier, Supplier<? extends T> factory) {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.copier = copier;
+        this.factory = factory;
+    }
+
+    @Override
+    public T map(S source) {
+        if (source == null) {
+            return null;
+        }
+        T target = factory.get();
+        copier.copy(source, target);
+        return target;
+    }
+
+    @Override
+    public void copy(S source, T target) {
+        copier.copy(Objects.requireNonNull(source, "source must not be null"),
+                Objects.requireNonNull(target, "target must not be null"));
+    }
+
+    @Override
+    public Class<S> getSourceType() {
+        return sourceType;
+    }
+
+    @Override
+    public Class<T> getTargetType() {
+        return targetType;
+    }
+
+}
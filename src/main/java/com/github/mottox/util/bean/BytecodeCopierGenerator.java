@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.reflect.Method;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import com.github.mottox.util.bean.MappingPlan.PropertyMapping;
+
+import net.sf.cglib.asm.$ClassVisitor;
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$Type;
+import net.sf.cglib.core.AbstractClassGenerator;
+import net.sf.cglib.core.ClassEmitter;
+import net.sf.cglib.core.CodeEmitter;
+import net.sf.cglib.core.Constants;
+import net.sf.cglib.core.Local;
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.core.Signature;
+import net.sf.cglib.core.TypeUtils;
+
+/**
+ * A generator of classes that copy properties as described by a {@link MappingPlan}.
+ * <p>
+ * Different from a cglib {@link net.sf.cglib.beans.BeanCopier}, the generated code only calls a {@link TypeConverter}
+ * for the properties that need one. Direct assignments are specialized for the types of getter and setter, including
+ * primitive widening, boxing and unboxing, so that copying primitive properties never boxes them. The classes of
+ * partial copiers check the values for null inline, right before they are passed to a converter or a setter.
+ * <p>
+ * The converters are passed to the constructor of a generated class, so the class only depends on the properties of
+ * the plan and on which of them are assigned directly. The classes are cached by cglib per class loader keyed by that
+ * shape, and shared by all the converters, whatever their {@link TypeConverter}s are.
+ *
+ * @author Robin Wang
+ */
+final class BytecodeCopierGenerator extends AbstractClassGenerator<Object> {
+
+    private static final Source SOURCE = new Source(BytecodeCopierGenerator.class.getName());
+
+    private static final $Type BI_CONSUMER = $Type.getType(BiConsumer.class);
+
+    private static final $Type TYPE_CONVERTER = $Type.getType(TypeConverter.class);
+
+    private static final $Type TYPE_CONVERTER_ARRAY = $Type.getType(TypeConverter[].class);
+
+    private static final Signature ACCEPT =
+            TypeUtils.parseSignature("void accept(Object, Object)");
+
+    private static final Signature CONVERT = TypeUtils.parseSignature("Object convert(Object)");
+
+    private static final Signature CONSTRUCTOR =
+            new Signature(Constants.CONSTRUCTOR_NAME, $Type.VOID_TYPE, new $Type[]{TYPE_CONVERTER_ARRAY});
+
+    private static final String CONVERTERS_FIELD = "converters";
+
+    private final MappingPlan plan;
+
+    /**
+     * Whether the generated class skips null values rather than copying them.
+     */
+    private final boolean nonNull;
+
+    private BytecodeCopierGenerator(MappingPlan plan, boolean nonNull) {
+        super(SOURCE);
+        this.plan = plan;
+        this.nonNull = nonNull;
+        setNamePrefix(plan.getSourceType().getName());
+    }
+
+    /**
+     * Generate a {@link Copier} of the given mapping plan.
+     *
+     * @param plan the mapping plan
+     *
+     * @return the copier
+     */
+    static Copier create(MappingPlan plan) {
+        return generate(plan, false);
+    }
+
+    /**
+     * Generate a {@link PartialCopier} of the given mapping plan. The generated class is used when the changed
+     * properties are not requested. Otherwise the current values of the target bean have to be compared, which is
+     * done by a {@link LambdaCopier#partial(MappingPlan) lambda partial copier}.
+     *
+     * @param plan the mapping plan
+     *
+     * @return the partial copier
+     */
+    static PartialCopier createPartial(MappingPlan plan) {
+        Copier copier = generate(plan, true);
+        PartialCopier tracking = LambdaCopier.partial(plan);
+        return (source, target, changes) -> {
+            if (changes == null) {
+                copier.copy(source, target);
+            } else {
+                tracking.copy(source, target, changes);
+            }
+        };
+    }
+
+    private static Copier generate(MappingPlan plan, boolean nonNull) {
+        Class<?> type = copierClass(plan, nonNull);
+
+        List<PropertyMapping> mappings = plan.getMappings();
+        TypeConverter<?, ?>[] converters = new TypeConverter<?, ?>[mappings.size()];
+        for (int i = 0; i < converters.length; i++) {
+            converters[i] = mappings.get(i).getConverter();
+        }
+
+        @SuppressWarnings("unchecked")
+        BiConsumer<Object, Object> copier = (BiConsumer<Object, Object>) ReflectUtils.newInstance(type,
+                new Class[]{TypeConverter[].class}, new Object[]{converters});
+        return copier::accept;
+    }
+
+    /**
+     * Get the generated class of the given mapping plan, which is generated unless a plan of the same shape has been.
+     *
+     * @param plan    the mapping plan
+     * @param nonNull whether the class skips null values
+     *
+     * @return the generated class, whose constructor takes the converters of the plan
+     */
+    static Class<?> copierClass(MappingPlan plan, boolean nonNull) {
+        List<Object> key = new ArrayList<>();
+        key.add(plan.getSourceType().getName());
+        key.add(plan.getTargetType().getName());
+        key.add(nonNull);
+        for (PropertyMapping mapping : plan.getMappings()) {
+            key.add(mapping.getGetter().getName());
+            key.add(mapping.getSetter().getName());
+            key.add(mapping.getTargetType().getName());
+            key.add(mapping.isDirect());
+        }
+        return (Class<?>) new BytecodeCopierGenerator(plan, nonNull).create(key);
+    }
+
+    @Override
+    protected ClassLoader getDefaultClassLoader() {
+        return plan.getSourceType().getClassLoader();
+    }
+
+    @Override
+    protected ProtectionDomain getProtectionDomain() {
+        return ReflectUtils.getProtectionDomain(plan.getSourceType());
+    }
+
+    @Override
+    protected Object firstInstance(Class type) {
+        return type;
+    }
+
+    @Override
+    protected Object nextInstance(Object instance) {
+        return instance;
+    }
+
+    @Override
+    public void generateClass($ClassVisitor v) {
+        $Type sourceType = $Type.getType(plan.getSourceType());
+        $Type targetType = $Type.getType(plan.getTargetType());
+
+        ClassEmitter ce = new ClassEmitter(v);
+        ce.begin_class(Constants.V1_2, Constants.ACC_PUBLIC, getClassName(), Constants.TYPE_OBJECT,
+                new $Type[]{BI_CONSUMER}, Constants.SOURCE_FILE);
+        ce.declare_field(Constants.ACC_PRIVATE | Constants.ACC_FINAL, CONVERTERS_FIELD, TYPE_CONVERTER_ARRAY, null);
+
+        CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, CONSTRUCTOR, null);
+        e.load_this();
+        e.super_invoke_constructor();
+        e.load_this();
+        e.load_arg(0);
+        e.putfield(CONVERTERS_FIELD);
+        e.return_value();
+        e.end_method();
+
+        e = ce.begin_method(Constants.ACC_PUBLIC, ACCEPT, null);
+        Local source = e.make_local(sourceType);
+        Local target = e.make_local(targetType);
+        e.load_arg(0);
+        e.checkcast(sourceType);
+        e.store_local(source);
+        e.load_arg(1);
+        e.checkcast(targetType);
+        e.store_local(target);
+
+        List<PropertyMapping> mappings = plan.getMappings();
+        for (int i = 0; i < mappings.size(); i++) {
+            PropertyMapping mapping = mappings.get(i);
+            if (nonNull && !(mapping.isDirect() && mapping.getSourceType().isPrimitive())) {
+                // Values of primitive properties are never null, so they are copied as usual.
+                copyNonNull(e, i, mapping, source, target);
+                continue;
+            }
+            Method getter = mapping.getGetter();
+            Method setter = mapping.getSetter();
+
+            e.load_local(target);
+            e.load_local(source);
+            e.invoke(ReflectUtils.getMethodInfo(getter));
+            if (mapping.isDirect()) {
+                assign(e, mapping.getSourceType(), mapping.getTargetType());
+            } else {
+                convert(e, i, mapping.getSourceType(), mapping.getTargetType());
+            }
+            e.invoke(ReflectUtils.getMethodInfo(setter));
+        }
+
+        e.return_value();
+        e.end_method();
+        ce.end_class();
+    }
+
+    /**
+     * Emit the code that copies the property of the given mapping unless its value, or the value it is converted to,
+     * is null.
+     *
+     * @param e       the code emitter
+     * @param index   the index of converter
+     * @param mapping the property mapping
+     * @param source  the local of source bean
+     * @param target  the local of target bean
+     */
+    private static void copyNonNull(CodeEmitter e, int index, PropertyMapping mapping, Local source, Local target) {
+        Class<?> sourceType = mapping.getSourceType();
+        Class<?> targetType = mapping.getTargetType();
+        $Label skip = e.make_label();
+        $Label end = e.make_label();
+
+        e.load_local(source);
+        e.invoke(ReflectUtils.getMethodInfo(mapping.getGetter()));
+        if (!sourceType.isPrimitive()) {
+            e.dup();
+            e.ifnull(skip);
+        }
+        Local value;
+        if (mapping.isDirect()) {
+            value = e.make_local($Type.getType(sourceType));
+            e.store_local(value);
+            e.load_local(target);
+            e.load_local(value);
+            assign(e, sourceType, targetType);
+        } else {
+            box(e, sourceType);
+            e.load_this();
+            e.getfield(CONVERTERS_FIELD);
+            e.aaload(index);
+            e.swap();
+            e.invoke_interface(TYPE_CONVERTER, CONVERT);
+            e.dup();
+            e.ifnull(skip);
+            value = e.make_local(Constants.TYPE_OBJECT);
+            e.store_local(value);
+            e.load_local(target);
+            e.load_local(value);
+            $Type type = $Type.getType(targetType);
+            if (targetType.isPrimitive()) {
+                e.unbox(type);
+            } else {
+                e.checkcast(type);
+            }
+        }
+        e.invoke(ReflectUtils.getMethodInfo(mapping.getSetter()));
+        e.goTo(end);
+        e.mark(skip);
+        e.pop();
+        e.mark(end);
+    }
+
+    /**
+     * Emit the code that turns the value of source type on the stack into a value of target type, given that the
+     * target type is assignable from the source type.
+     *
+     * @param e          the code emitter
+     * @param sourceType the source type
+     * @param targetType the target type
+     */
+    private static void assign(CodeEmitter e, Class<?> sourceType, Class<?> targetType) {
+        if (sourceType == targetType) {
+            return;
+        }
+        if (sourceType.isPrimitive() && targetType.isPrimitive()) {
+            // Widening primitive conversion
+            e.cast_numeric($Type.getType(sourceType), $Type.getType(targetType));
+        } else if (sourceType.isPrimitive()) {
+            // Boxing conversion
+            box(e, sourceType);
+        } else if (targetType.isPrimitive()) {
+            // Unboxing conversion, which also turns null into zero
+            e.unbox_or_zero($Type.getType(targetType));
+        }
+    }
+
+    /**
+     * Emit the code that converts the boxed value on the stack by the converter at the given index, unless it is null.
+     *
+     * @param e          the code emitter
+     * @param index      the index of converter
+     * @param sourceType the source type
+     * @param targetType the target type
+     */
+    private static void convert(CodeEmitter e, int index, Class<?> sourceType, Class<?> targetType) {
+        box(e, sourceType);
+        $Label end = e.make_label();
+        e.dup();
+        e.ifnull(end);
+        e.load_this();
+        e.getfield(CONVERTERS_FIELD);
+        e.aaload(index);
+        e.swap();
+        e.invoke_interface(TYPE_CONVERTER, CONVERT);
+        e.mark(end);
+        $Type type = $Type.getType(targetType);
+        if (targetType.isPrimitive()) {
+            e.unbox_or_zero(type);
+        } else {
+            e.checkcast(type);
+        }
+    }
+
+    /**
+     * Emit the code that boxes the value on the stack if it is primitive.
+     * Different from {@link CodeEmitter#box($Type)}, the cached instances of the wrapper types are reused.
+     *
+     * @param e    the code emitter
+     * @param type the type of value
+     */
+    private static void box(CodeEmitter e, Class<?> type) {
+        if (type.isPrimitive()) {
+            $Type primitive = $Type.getType(type);
+            $Type wrapper = TypeUtils.getBoxedType(primitive);
+            e.invoke_static(wrapper, new Signature("valueOf", wrapper, new $Type[]{primitive}));
+        }
+    }
+
+}
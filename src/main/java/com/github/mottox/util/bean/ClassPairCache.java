@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+/**
+ * A cache of values keyed by a pair of source class and target class.
+ * <p>
+ * The first level is a {@link ClassValue} attached to the source class, the second level is a map keyed by the
+ * target class. Both levels compare classes by identity, so a lookup of an existing value allocates nothing, two
+ * classes of the same name from different class loaders never share a value, and classes without a canonical name
+ * (anonymous and local classes) are supported.
+ * <p>
+ * Since the values are attached to the source class, the cache does not keep the class or its class loader reachable
+ * and the entries are reclaimed together with the class loader. The cache itself only tracks the entries through weak
+ * references, which allows explicit eviction by class or class loader and an optional maximum size. When the maximum
+ * size is exceeded the least recently used entries are evicted.
+ * <p>
+ * A value is created exactly once per pair, without holding any lock of the maps: the first thread missing a pair
+ * publishes a pending entry and runs the factory, while the other threads missing the same pair wait for that entry.
+ * Threads looking up other pairs never wait for it, so a slow factory, e.g. generating a class, only delays the threads
+ * which need its value. A failed creation is not cached, so the next lookup tries again.
+ *
+ * @param <V> the type of cached value
+ *
+ * @author Robin Wang
+ */
+final class ClassPairCache<V> {
+
+    /**
+     * The maximum number of entries, or zero if the cache is unbounded.
+     */
+    private final int maximumSize;
+
+    /**
+     * The per source class tables of entries keyed by target class.
+     */
+    private final ClassValue<Map<Class<?>, Entry<V>>> tables = new ClassValue<Map<Class<?>, Entry<V>>>() {
+        @Override
+        protected Map<Class<?>, Entry<V>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Weak references to all live entries, used for eviction and size tracking.
+     */
+    private final Set<EntryReference<V>> entries = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The queue of references whose entries have been reclaimed along with their classes.
+     */
+    private final ReferenceQueue<Entry<V>> queue = new ReferenceQueue<>();
+
+    /**
+     * Construct an unbounded cache.
+     */
+    ClassPairCache() {
+        this(0);
+    }
+
+    /**
+     * Construct a cache with the given maximum size.
+     *
+     * @param maximumSize the maximum number of entries, or zero if the cache is unbounded
+     */
+    ClassPairCache(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Get the value of source class and target class.
+     * Create a new one by the given factory if it is not contained in the cache.
+     *
+     * @param source  the source class
+     * @param target  the target class
+     * @param factory the factory to create the value if absent
+     *
+     * @return the value of source class and target class
+     */
+    V get(Class<?> source, Class<?> target, BiFunction<Class<?>, Class<?>, ? extends V> factory) {
+        Map<Class<?>, Entry<V>> table = tables.get(source);
+        Entry<V> entry = table.get(target);
+        if (entry == null) {
+            return create(table, source, target, factory);
+        }
+        if (maximumSize > 0) {
+            entry.lastAccess = System.nanoTime();
+        }
+        V value = entry.value;
+        return value != null ? value : entry.await();
+    }
+
+    /**
+     * Get the value of source class and target class if it is contained in the cache.
+     *
+     * @param source the source class
+     * @param target the target class
+     *
+     * @return the value of source class and target class, or null if absent or still being created
+     */
+    V getIfPresent(Class<?> source, Class<?> target) {
+        Entry<V> entry = tables.get(source).get(target);
+        if (entry == null) {
+            return null;
+        }
+        if (maximumSize > 0) {
+            entry.lastAccess = System.nanoTime();
+        }
+        return entry.value;
+    }
+
+    /**
+     * Evict all entries of which the source class or the target class is the given class.
+     *
+     * @param clazz the class to evict
+     */
+    void evict(Class<?> clazz) {
+        removeIf(entry -> entry.source == clazz || entry.target == clazz);
+    }
+
+    /**
+     * Evict all entries of which the source class or the target class is loaded by the given class loader.
+     *
+     * @param classLoader the class loader to evict
+     */
+    void evict(ClassLoader classLoader) {
+        removeIf(entry -> entry.source.getClassLoader() == classLoader
+                || entry.target.getClassLoader() == classLoader);
+    }
+
+    /**
+     * Evict all entries.
+     */
+    void clear() {
+        removeIf(entry -> true);
+    }
+
+    /**
+     * Get the number of entries in the cache.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        expungeStaleEntries();
+        return entries.size();
+    }
+
+    private V create(Map<Class<?>, Entry<V>> table, Class<?> source, Class<?> target,
+                     BiFunction<Class<?>, Class<?>, ? extends V> factory) {
+        expungeStaleEntries();
+        Entry<V> created = new Entry<>(table, source, target, factory, queue);
+        Entry<V> entry = table.putIfAbsent(target, created);
+        if (entry != null) {
+            // Another thread is creating the value, or has just created it.
+            return entry.await();
+        }
+        entries.add(created.reference);
+        if (maximumSize > 0 && entries.size() > maximumSize) {
+            evictLeastRecentlyUsed(created);
+        }
+
+        created.run();
+        try {
+            return created.await();
+        } catch (RuntimeException | Error e) {
+            remove(created);
+            throw e;
+        }
+    }
+
+    /**
+     * Evict the least recently used entries until the cache fits its maximum size.
+     * A linear scan is fine here since it only happens when a new value has just been created, which is by far the
+     * more expensive operation.
+     *
+     * @param retained the entry that must not be evicted
+     */
+    private void evictLeastRecentlyUsed(Entry<V> retained) {
+        while (entries.size() > maximumSize) {
+            Entry<V> eldest = null;
+            for (EntryReference<V> reference : entries) {
+                Entry<V> entry = reference.get();
+                if (entry != null && entry != retained && (eldest == null || entry.lastAccess < eldest.lastAccess)) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            remove(eldest);
+        }
+    }
+
+    private void removeIf(Predicate<Entry<V>> predicate) {
+        expungeStaleEntries();
+        for (EntryReference<V> reference : entries) {
+            Entry<V> entry = reference.get();
+            if (entry != null && predicate.test(entry)) {
+                remove(entry);
+            }
+        }
+    }
+
+    private void remove(Entry<V> entry) {
+        entry.table.remove(entry.target, entry);
+        entries.remove(entry.reference);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expungeStaleEntries() {
+        EntryReference<V> reference;
+        while ((reference = (EntryReference<V>) queue.poll()) != null) {
+            entries.remove(reference);
+        }
+    }
+
+    /**
+     * A cached value with its key and bookkeeping information. The value is created by the task of the entry, which is
+     * run by the thread that has published the entry.
+     *
+     * @param <V> the type of cached value
+     */
+    private static final class Entry<V> {
+
+        private final Map<Class<?>, Entry<V>> table;
+
+        private final Class<?> source;
+
+        private final Class<?> target;
+
+        private final FutureTask<V> task;
+
+        private final EntryReference<V> reference;
+
+        /**
+         * The created value, or null until the task has completed.
+         */
+        private volatile V value;
+
+        /**
+         * The thread running the task, or null once it has completed.
+         */
+        private volatile Thread creator;
+
+        private volatile long lastAccess;
+
+        Entry(Map<Class<?>, Entry<V>> table, Class<?> source, Class<?> target,
+              BiFunction<Class<?>, Class<?>, ? extends V> factory, ReferenceQueue<Entry<V>> queue) {
+            this.table = table;
+            this.source = source;
+            this.target = target;
+            this.task = new FutureTask<>(() -> factory.apply(source, target));
+            this.reference = new EntryReference<>(this, queue);
+            this.lastAccess = System.nanoTime();
+        }
+
+        void run() {
+            creator = Thread.currentThread();
+            try {
+                task.run();
+            } finally {
+                creator = null;
+            }
+        }
+
+        /**
+         * Wait for the value to be created. Interrupts do not abort the wait, which is as short as the creation, but
+         * are restored when it is over.
+         *
+         * @return the created value
+         */
+        V await() {
+            if (creator == Thread.currentThread()) {
+                throw new IllegalStateException("recursive creation of the value of " + source.getName() + " to "
+                        + target.getName());
+            }
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        V created = task.get();
+                        value = created;
+                        return created;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof RuntimeException) {
+                            throw (RuntimeException) cause;
+                        }
+                        if (cause instanceof Error) {
+                            throw (Error) cause;
+                        }
+                        throw new IllegalStateException(cause);
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * A weak reference to an {@link Entry}, which does not keep the classes of the entry reachable.
+     *
+     * @param <V> the type of cached value
+     */
+    private static final class EntryReference<V> extends WeakReference<Entry<V>> {
+
+        EntryReference(Entry<V> referent, ReferenceQueue<Entry<V>> queue) {
+            super(referent, queue);
+        }
+    }
+
+}
@@ -0,0 +1,528 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.github.mottox.util.bean.BeanConverterImpl.ConverterAdapter;
+import com.github.mottox.util.bean.DeepConversion.Graph;
+
+import net.jodah.typetools.TypeResolver;
+
+/**
+ * The conversion of collections, arrays and maps of which the elements need to be converted to the generic element
+ * types of the target properties, e.g. a <code>List&lt;OrderEntity&gt;</code> to a
+ * <code>List&lt;OrderDto&gt;</code>, which would otherwise be assigned as is with elements of the wrong type.
+ * <p>
+ * The converters are bound from the generic types of the properties when the copier of a class pair is created. The
+ * elements are converted one by one into a target container presized to the number of elements, by the
+ * {@link TypeConverter} resolved for the element types. Elements that need no conversion are copied in bulk, by
+ * {@link System#arraycopy} for arrays of compatible component types. Collections and maps of which the elements need
+ * no conversion are assigned as is, like any other property, while arrays are always copied, so that the source and
+ * the target never share an array.
+ * <p>
+ * A container of which the elements need to be converted but no {@link TypeConverter} converts is converted to null,
+ * like any other unconvertible property, rather than assigned with elements of the wrong type. A strict converter
+ * reports such a container when the copier is created.
+ *
+ * @author Robin Wang
+ */
+final class ContainerConversion {
+
+    /**
+     * The converter of the containers of which no {@link TypeConverter} converts the elements.
+     */
+    private static final TypeConverter<Object, Object> UNCONVERTIBLE = value -> null;
+
+    /**
+     * The function looking up the factory of a target class.
+     */
+    private final Function<Class<?>, Supplier<?>> factories;
+
+    /**
+     * The deep conversion tracking converted containers by identity, or null if properties are converted shallowly.
+     */
+    private final DeepConversion deepConversion;
+
+    /**
+     * Construct a new container conversion.
+     *
+     * @param factories      the function looking up the factory of a target class, which throws a
+     *                       {@link RuntimeException} if the class is not instantiable
+     * @param deepConversion the deep conversion, or null if properties are converted shallowly
+     */
+    ContainerConversion(Function<Class<?>, Supplier<?>> factories, DeepConversion deepConversion) {
+        this.factories = factories;
+        this.deepConversion = deepConversion;
+    }
+
+    /**
+     * Get the converter of a property of which the source type and the target type are collections, arrays or maps
+     * of elements that need to be converted.
+     *
+     * @param sourceType the declared type of source property
+     * @param targetType the declared type of target property
+     * @param adapter    the adapter to resolve the converters of elements
+     *
+     * @return the converter, which converts the container to null if no {@link TypeConverter} converts its
+     * elements, or null if the property is not a container or it is a collection or a map of which the elements need
+     * no conversion, in which case the property is copied like any other property
+     */
+    TypeConverter<Object, Object> bind(Type sourceType, Type targetType, ConverterAdapter adapter) {
+        if (unconvertibleElements(sourceType, targetType, adapter) != null) {
+            // Converting every element to null would silently empty the container, and sharing it would leave
+            // elements of the wrong type in the target.
+            return UNCONVERTIBLE;
+        }
+        Class<?> source = rawType(sourceType);
+        Class<?> target = rawType(targetType);
+        try {
+            if (Map.class.isAssignableFrom(source) && Map.class.isAssignableFrom(target)) {
+                Type[] sourceArguments = typeArguments(sourceType, Map.class);
+                Type[] targetArguments = typeArguments(targetType, Map.class);
+                if (target.isAssignableFrom(source) && !needsConversion(sourceArguments[0], targetArguments[0])
+                        && !needsConversion(sourceArguments[1], targetArguments[1])) {
+                    return null;
+                }
+                return new MapStep(target, mapFactory(target),
+                        eager(element(sourceArguments[0], targetArguments[0], adapter)),
+                        element(sourceArguments[1], targetArguments[1], adapter));
+            }
+            if (isSequence(source) && isSequence(target)) {
+                Type sourceElement = elementType(sourceType);
+                Type targetElement = elementType(targetType);
+                TypeConverter<Object, Object> element;
+                if (target.isAssignableFrom(source) && !needsConversion(sourceElement, targetElement)) {
+                    if (!target.isArray()) {
+                        return null;
+                    }
+                    element = ConverterAdapter.PASS_THROUGH;
+                } else {
+                    element = element(sourceElement, targetElement, adapter);
+                }
+                if (target.isArray()) {
+                    return new ArrayStep(target, element);
+                }
+                IntFunction<Collection<Object>> factory = collectionFactory(target);
+                if (target.isAssignableFrom(LinkedHashSet.class) || target.isAssignableFrom(TreeSet.class)) {
+                    element = eager(element);
+                }
+                return new CollectionStep(target, factory, element);
+            }
+        } catch (RuntimeException e) {
+            // The target container is not instantiable, so the property is copied like any other property.
+        }
+        return null;
+    }
+
+    /**
+     * Find the element types of a property of which the source type and the target type are collections, arrays or
+     * maps, which need to be converted but no {@link TypeConverter} converts, including the elements of nested
+     * containers. Elements declared as {@link Object} are not reported, since their converters depend on the types
+     * of the values at runtime.
+     *
+     * @param sourceType the declared type of source property
+     * @param targetType the declared type of target property
+     * @param adapter    the adapter to resolve the converters of elements
+     *
+     * @return the source and target element types, or null if the property is not a container or its elements are
+     * convertible
+     */
+    static Class<?>[] unconvertibleElements(Type sourceType, Type targetType, ConverterAdapter adapter) {
+        Class<?> source = rawType(sourceType);
+        Class<?> target = rawType(targetType);
+        if (Map.class.isAssignableFrom(source) && Map.class.isAssignableFrom(target)) {
+            Type[] sourceArguments = typeArguments(sourceType, Map.class);
+            Type[] targetArguments = typeArguments(targetType, Map.class);
+            Class<?>[] keys = unconvertibleElement(sourceArguments[0], targetArguments[0], adapter);
+            return keys != null ? keys : unconvertibleElement(sourceArguments[1], targetArguments[1], adapter);
+        }
+        if (isSequence(source) && isSequence(target)) {
+            return unconvertibleElement(elementType(sourceType), elementType(targetType), adapter);
+        }
+        return null;
+    }
+
+    private static Class<?>[] unconvertibleElement(Type sourceType, Type targetType, ConverterAdapter adapter) {
+        if (!needsConversion(sourceType, targetType)) {
+            return null;
+        }
+        Class<?> source = rawType(sourceType);
+        Class<?> target = rawType(targetType);
+        if ((Map.class.isAssignableFrom(source) && Map.class.isAssignableFrom(target))
+                || (isSequence(source) && isSequence(target))) {
+            return unconvertibleElements(sourceType, targetType, adapter);
+        }
+        if (source == Object.class || adapter.canConvert(ClassUtils.primitiveToWrapper(source), target)) {
+            return null;
+        }
+        return new Class<?>[]{source, target};
+    }
+
+    /**
+     * Determine if the given converter is bound by this conversion.
+     *
+     * @param converter the converter of a property
+     *
+     * @return true if the converter converts a container
+     */
+    static boolean isContainer(TypeConverter<Object, Object> converter) {
+        return converter == UNCONVERTIBLE || converter instanceof CollectionStep || converter instanceof ArrayStep
+                || converter instanceof MapStep;
+    }
+
+    /**
+     * Get the converter of the elements of a container.
+     */
+    private TypeConverter<Object, Object> element(Type sourceType, Type targetType, ConverterAdapter adapter) {
+        TypeConverter<Object, Object> converter = bind(sourceType, targetType, adapter);
+        if (converter != null) {
+            return converter;
+        }
+        return MappingPlan.bind(rawType(sourceType), rawType(targetType), adapter);
+    }
+
+    /**
+     * Wrap the given converter so that the nested beans it creates are copied right away, which is only needed by
+     * deep conversion.
+     */
+    private TypeConverter<Object, Object> eager(TypeConverter<Object, Object> converter) {
+        if (deepConversion == null || converter == ConverterAdapter.PASS_THROUGH) {
+            return converter;
+        }
+        return value -> {
+            Graph graph = deepConversion.graph();
+            graph.eager++;
+            try {
+                return converter.convert(value);
+            } finally {
+                graph.eager--;
+            }
+        };
+    }
+
+    /**
+     * Get the object the given source container has been converted to in the current graph, if any.
+     */
+    private Object converted(Object source, Class<?> type) {
+        return deepConversion == null ? null : deepConversion.graph().get(source, type);
+    }
+
+    /**
+     * Record the conversion of the given source container in the current graph, before its elements are converted.
+     */
+    private void register(Object source, Object target) {
+        if (deepConversion != null) {
+            deepConversion.graph().put(source, target);
+        }
+    }
+
+    private IntFunction<Collection<Object>> collectionFactory(Class<?> type) {
+        if (type.isAssignableFrom(ArrayList.class)) {
+            return ArrayList::new;
+        }
+        if (type.isAssignableFrom(LinkedHashSet.class)) {
+            return size -> new LinkedHashSet<>(Math.max((int) (size / .75F) + 1, 16));
+        }
+        if (type.isAssignableFrom(TreeSet.class)) {
+            return size -> new TreeSet<>();
+        }
+        if (type.isAssignableFrom(LinkedList.class)) {
+            return size -> new LinkedList<>();
+        }
+        Supplier<?> factory = factories.apply(type);
+        return size -> cast(factory.get());
+    }
+
+    private IntFunction<Map<Object, Object>> mapFactory(Class<?> type) {
+        if (type.isAssignableFrom(LinkedHashMap.class)) {
+            return size -> new LinkedHashMap<>(Math.max((int) (size / .75F) + 1, 16));
+        }
+        if (type.isAssignableFrom(TreeMap.class)) {
+            return size -> new TreeMap<>();
+        }
+        if (type.isAssignableFrom(ConcurrentHashMap.class)) {
+            return ConcurrentHashMap::new;
+        }
+        Supplier<?> factory = factories.apply(type);
+        return size -> cast(factory.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    /**
+     * Determine if values of the given source type need to be converted to be assigned to the given target type.
+     */
+    private static boolean needsConversion(Type sourceType, Type targetType) {
+        Class<?> source = rawType(sourceType);
+        Class<?> target = rawType(targetType);
+        if (!ClassUtils.isAssignable(source, target, true)) {
+            return true;
+        }
+        if (Map.class.isAssignableFrom(source) && Map.class.isAssignableFrom(target)) {
+            Type[] sourceArguments = typeArguments(sourceType, Map.class);
+            Type[] targetArguments = typeArguments(targetType, Map.class);
+            return needsConversion(sourceArguments[0], targetArguments[0])
+                    || needsConversion(sourceArguments[1], targetArguments[1]);
+        }
+        if (isSequence(source) && isSequence(target)) {
+            return needsConversion(elementType(sourceType), elementType(targetType));
+        }
+        return false;
+    }
+
+    private static boolean isSequence(Class<?> type) {
+        return type.isArray() || Collection.class.isAssignableFrom(type);
+    }
+
+    private static Type elementType(Type type) {
+        if (type instanceof GenericArrayType) {
+            return ((GenericArrayType) type).getGenericComponentType();
+        }
+        Class<?> raw = rawType(type);
+        return raw.isArray() ? raw.getComponentType() : typeArguments(type, Collection.class)[0];
+    }
+
+    /**
+     * Get the type arguments of the given container interface of a type. The arguments of a parameterized type of
+     * the JDK are taken as is since they are declared in the same order, otherwise they are resolved to raw classes.
+     */
+    private static Type[] typeArguments(Type type, Class<?> container) {
+        if (type instanceof ParameterizedType) {
+            Class<?> raw = rawType(type);
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (raw.getName().startsWith("java.") && arguments.length == container.getTypeParameters().length) {
+                return arguments;
+            }
+        }
+        Class<?>[] arguments = TypeResolver.resolveRawArguments(container, rawType(type));
+        Type[] result = new Type[container.getTypeParameters().length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = arguments == null || arguments[i] == TypeResolver.Unknown.class ? Object.class : arguments[i];
+        }
+        return result;
+    }
+
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawType(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return rawType(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    /**
+     * The conversion of a collection or an array to a collection.
+     */
+    private final class CollectionStep implements TypeConverter<Object, Object> {
+
+        private final Class<?> targetType;
+
+        private final IntFunction<Collection<Object>> factory;
+
+        private final TypeConverter<Object, Object> element;
+
+        CollectionStep(Class<?> targetType, IntFunction<Collection<Object>> factory,
+                       TypeConverter<Object, Object> element) {
+            this.targetType = targetType;
+            this.factory = factory;
+            this.element = element;
+        }
+
+        @Override
+        public Object convert(Object value) {
+            Object existing = converted(value, targetType);
+            if (existing != null) {
+                return existing;
+            }
+            if (value instanceof Collection) {
+                Collection<?> source = (Collection<?>) value;
+                Collection<Object> target = factory.apply(source.size());
+                register(value, target);
+                if (element == ConverterAdapter.PASS_THROUGH) {
+                    target.addAll(source);
+                } else {
+                    for (Object item : source) {
+                        target.add(item == null ? null : element.convert(item));
+                    }
+                }
+                return target;
+            }
+            int length = Array.getLength(value);
+            Collection<Object> target = factory.apply(length);
+            register(value, target);
+            if (element == ConverterAdapter.PASS_THROUGH && value instanceof Object[]) {
+                target.addAll(Arrays.asList((Object[]) value));
+            } else {
+                for (int i = 0; i < length; i++) {
+                    Object item = Array.get(value, i);
+                    target.add(item == null ? null : element.convert(item));
+                }
+            }
+            return target;
+        }
+    }
+
+    /**
+     * The conversion of a collection or an array to an array.
+     */
+    private final class ArrayStep implements TypeConverter<Object, Object> {
+
+        private final Class<?> targetType;
+
+        private final Class<?> componentType;
+
+        private final TypeConverter<Object, Object> element;
+
+        ArrayStep(Class<?> targetType, TypeConverter<Object, Object> element) {
+            this.targetType = targetType;
+            this.componentType = targetType.getComponentType();
+            this.element = element;
+        }
+
+        @Override
+        public Object convert(Object value) {
+            Object existing = converted(value, targetType);
+            if (existing != null) {
+                return existing;
+            }
+            if (value instanceof Collection) {
+                Collection<?> source = (Collection<?>) value;
+                Object target = Array.newInstance(componentType, source.size());
+                register(value, target);
+                if (element == ConverterAdapter.PASS_THROUGH && !componentType.isPrimitive()) {
+                    return source.toArray((Object[]) target);
+                }
+                int i = 0;
+                for (Object item : source) {
+                    set(target, i++, item == null ? null : element.convert(item));
+                }
+                return target;
+            }
+            int length = Array.getLength(value);
+            Object target = Array.newInstance(componentType, length);
+            register(value, target);
+            if (element == ConverterAdapter.PASS_THROUGH && isCompatible(value.getClass().getComponentType())) {
+                System.arraycopy(value, 0, target, 0, length);
+                return target;
+            }
+            for (int i = 0; i < length; i++) {
+                Object item = Array.get(value, i);
+                set(target, i, item == null ? null : element.convert(item));
+            }
+            return target;
+        }
+
+        /**
+         * Determine if an array of the given component type can be copied by {@link System#arraycopy}.
+         */
+        private boolean isCompatible(Class<?> sourceComponentType) {
+            return sourceComponentType == componentType
+                    || !componentType.isPrimitive() && componentType.isAssignableFrom(sourceComponentType);
+        }
+
+        private void set(Object array, int index, Object value) {
+            // A null element of a primitive array is left zero.
+            if (value != null || !componentType.isPrimitive()) {
+                Array.set(array, index, value);
+            }
+        }
+    }
+
+    /**
+     * The conversion of a map to a map.
+     */
+    private final class MapStep implements TypeConverter<Object, Object> {
+
+        private final Class<?> targetType;
+
+        private final IntFunction<Map<Object, Object>> factory;
+
+        private final TypeConverter<Object, Object> key;
+
+        private final TypeConverter<Object, Object> value;
+
+        MapStep(Class<?> targetType, IntFunction<Map<Object, Object>> factory, TypeConverter<Object, Object> key,
+                TypeConverter<Object, Object> value) {
+            this.targetType = targetType;
+            this.factory = factory;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Object convert(Object source) {
+            Object existing = converted(source, targetType);
+            if (existing != null) {
+                return existing;
+            }
+            Map<?, ?> entries = (Map<?, ?>) source;
+            Map<Object, Object> target = factory.apply(entries.size());
+            register(source, target);
+            if (key == ConverterAdapter.PASS_THROUGH && value == ConverterAdapter.PASS_THROUGH) {
+                target.putAll(entries);
+                return target;
+            }
+            for (Map.Entry<?, ?> entry : entries.entrySet()) {
+                target.put(entry.getKey() == null ? null : key.convert(entry.getKey()),
+                        entry.getValue() == null ? null : value.convert(entry.getValue()));
+            }
+            return target;
+        }
+    }
+
+}
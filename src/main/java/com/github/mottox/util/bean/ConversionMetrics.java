@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * The service provider interface of conversion metrics, which receives the events of the copier caches and the
+ * conversions of {@link BeanUtils} and {@link BeanConverter}s.
+ * <p>
+ * Metrics are opt-in: unless an implementation is set by {@link BeanUtils#setMetrics(ConversionMetrics)} or
+ * {@link BeanConverterBuilder#metrics(ConversionMetrics)}, {@link #NONE} is used, which is never called on the hot
+ * path. Implementations are called concurrently on every conversion, so they must be thread-safe and cheap. All
+ * methods do nothing by default.
+ *
+ * @author Robin Wang
+ * @see JmxConversionMetrics
+ */
+public interface ConversionMetrics {
+
+    /**
+     * The metrics that record nothing.
+     */
+    ConversionMetrics NONE = new ConversionMetrics() {
+    };
+
+    /**
+     * Register the copier caches of an owner, called when the metrics are attached to {@link BeanUtils} or a
+     * {@link BeanConverter}. Registering the same owner again replaces its registration. Implementations should
+     * reference the owner weakly, so that the metrics do not keep discarded converters and their class loaders
+     * reachable; the size function does not capture the owner for that reason.
+     *
+     * @param owner the owner of the copier caches, e.g. a converter
+     * @param size  the function getting the current number of copiers cached by the owner
+     * @param <T>   the type of owner
+     */
+    default <T> void registerCopierCache(T owner, ToIntFunction<? super T> size) {
+    }
+
+    /**
+     * Record that the copier of a class pair was found in the cache.
+     *
+     * @param source the source class
+     * @param target the target class
+     */
+    default void copierCacheHit(Class<?> source, Class<?> target) {
+    }
+
+    /**
+     * Record that the copier of a class pair was not found in the cache.
+     *
+     * @param source the source class
+     * @param target the target class
+     */
+    default void copierCacheMiss(Class<?> source, Class<?> target) {
+    }
+
+    /**
+     * Record that the copier of a class pair was created.
+     *
+     * @param source the source class
+     * @param target the target class
+     * @param nanos  the time in nanoseconds it took to create the copier
+     */
+    default void copierCreated(Class<?> source, Class<?> target, long nanos) {
+    }
+
+    /**
+     * Record that the properties of a source bean were copied into a target bean.
+     *
+     * @param source the source class
+     * @param target the target class
+     * @param nanos  the time in nanoseconds it took to copy the properties
+     */
+    default void converted(Class<?> source, Class<?> target, long nanos) {
+    }
+
+    /**
+     * Record that a registered {@link TypeConverter} was invoked.
+     *
+     * @param sourceType the source type of the converter
+     * @param targetType the target type of the converter
+     */
+    default void converterInvoked(Class<?> sourceType, Class<?> targetType) {
+    }
+
+    /**
+     * Record that a property was set to null because no {@link TypeConverter} is able to convert its value.
+     *
+     * @param valueType  the type of value
+     * @param targetType the type of target property
+     */
+    default void noConverterMatched(Class<?> valueType, Class<?> targetType) {
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link JmxConversionMetrics}.
+ * Class pairs and converters are keyed by <code>source -&gt; target</code> with the names of the classes.
+ *
+ * @author Robin Wang
+ */
+public interface ConversionMetricsMXBean {
+
+    /**
+     * Get the number of copier lookups that found the copier in the cache.
+     *
+     * @return the number of cache hits
+     */
+    long getCopierCacheHits();
+
+    /**
+     * Get the number of copier lookups that did not find the copier in the cache.
+     *
+     * @return the number of cache misses
+     */
+    long getCopierCacheMisses();
+
+    /**
+     * Get the current number of cached copiers of all registered caches.
+     *
+     * @return the number of cached copiers
+     */
+    int getCopierCacheSize();
+
+    /**
+     * Get the number of created copiers.
+     *
+     * @return the number of created copiers
+     */
+    long getCopierCreations();
+
+    /**
+     * Get the total time it took to create copiers.
+     *
+     * @return the total creation time in nanoseconds
+     */
+    long getCopierCreationNanos();
+
+    /**
+     * Get the longest time it took to create a copier.
+     *
+     * @return the maximum creation time in nanoseconds
+     */
+    long getCopierCreationMaxNanos();
+
+    /**
+     * Get the number of conversions per class pair.
+     *
+     * @return the conversion counts by class pair
+     */
+    Map<String, Long> getConversionCounts();
+
+    /**
+     * Get the total time of conversions per class pair.
+     *
+     * @return the total conversion time in nanoseconds by class pair
+     */
+    Map<String, Long> getConversionNanos();
+
+    /**
+     * Get the histograms of conversion time per class pair. The element <code>i</code> of a histogram is the number
+     * of conversions that took less than <code>2^i</code> but at least <code>2^(i-1)</code> nanoseconds, the last
+     * element also counts all longer conversions.
+     *
+     * @return the conversion time histograms by class pair
+     */
+    Map<String, long[]> getConversionHistograms();
+
+    /**
+     * Get the number of invocations per registered converter.
+     *
+     * @return the invocation counts by converter
+     */
+    Map<String, Long> getConverterInvocations();
+
+    /**
+     * Get the number of properties set to null because no converter matched, per value type and property type.
+     *
+     * @return the counts of unconverted properties by value type and property type
+     */
+    Map<String, Long> getUnmatchedProperties();
+
+    /**
+     * Reset all counters. The registered copier caches are kept.
+     */
+    void reset();
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import net.sf.cglib.beans.BeanCopier;
+import net.sf.cglib.core.ClassGenerator;
+import net.sf.cglib.core.DefaultGeneratorStrategy;
+
+/**
+ * A build-time tool that generates the cglib {@link BeanCopier} classes of the class pairs declared by
+ * {@link Convertible} into a class directory, so that they are packaged with the beans and loaded instead of
+ * generated when {@link BeanUtils} or a {@link BeanConverter} of {@link CopyEngine#CGLIB} copies them at runtime.
+ * <p>
+ * A copier class is named after the source bean and a hash of the names of its class pair, so the class generated at
+ * build time has the name the class generated at runtime would have, and is placed next to the source bean. The
+ * generated classes must be regenerated whenever the beans change, which is why the tool is meant to run in every
+ * build after compilation, e.g. by the <code>exec-maven-plugin</code> in the <code>process-classes</code> phase:
+ *
+ * <pre>
+ * java -cp &lt;classpath&gt; com.github.mottox.util.bean.CopierGenerator target/classes
+ * </pre>
+ *
+ * @author Robin Wang
+ */
+public final class CopierGenerator {
+
+    /**
+     * Private constructor.
+     */
+    private CopierGenerator() {
+    }
+
+    /**
+     * Generate the copier classes of the source beans annotated by {@link Convertible} in the given class directory
+     * into the same directory. The classes are loaded, without being initialized, by the context class loader.
+     *
+     * @param args the class directory
+     *
+     * @throws IOException if the class directory cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java " + CopierGenerator.class.getName() + " <class directory>");
+            System.exit(1);
+        }
+        Path directory = Paths.get(args[0]);
+        List<String> generated = generate(directory, scan(directory, Thread.currentThread().getContextClassLoader()));
+        System.out.println("Generated " + generated.size() + " copier classes into " + directory);
+    }
+
+    /**
+     * Generate the copier classes of the class pairs declared by {@link Convertible} on the given source beans.
+     * Both the copier used by {@link BeanUtils} and the one used by {@link BeanConverter}s are generated.
+     *
+     * @param directory the class directory to write the classes into
+     * @param sources   the source beans annotated by {@link Convertible}
+     *
+     * @return the names of the generated classes
+     *
+     * @throws IOException if a class cannot be written
+     */
+    public static List<String> generate(Path directory, Class<?>... sources) throws IOException {
+        List<String> generated = new ArrayList<>();
+        for (Class<?> source : sources) {
+            for (Class<?> target : targets(source)) {
+                for (boolean useConverter : new boolean[] {false, true}) {
+                    CapturingStrategy strategy = new CapturingStrategy();
+                    Generator generator = new Generator(source, target, useConverter);
+                    // Define the class in a fresh class loader, so that its name is not taken by another class.
+                    generator.setClassLoader(new ClassLoader(source.getClassLoader()) {
+                    });
+                    generator.setUseCache(false);
+                    generator.setStrategy(strategy);
+                    generator.create();
+
+                    String name = generator.getGeneratedClassName();
+                    Path file = directory.resolve(name.replace('.', '/') + ".class");
+                    Files.createDirectories(file.getParent());
+                    Files.write(file, strategy.bytes);
+                    generated.add(name);
+                }
+            }
+        }
+        return generated;
+    }
+
+    /**
+     * Create a {@link BeanCopier} of the given class pair, which loads the class generated by this tool if present
+     * instead of generating a new one.
+     *
+     * @param source       the source class
+     * @param target       the target class
+     * @param useConverter whether the copier uses a converter
+     *
+     * @return the bean copier
+     */
+    static BeanCopier beanCopier(Class<?> source, Class<?> target, boolean useConverter) {
+        Generator generator = new Generator(source, target, useConverter);
+        generator.setAttemptLoad(true);
+        return generator.create();
+    }
+
+    /**
+     * Get the target types declared by {@link Convertible} on the given source bean.
+     *
+     * @param source the source bean
+     *
+     * @return the target types
+     *
+     * @throws IllegalArgumentException if the source bean is not annotated by {@link Convertible}
+     */
+    static Class<?>[] targets(Class<?> source) {
+        Convertible convertible = source.getAnnotation(Convertible.class);
+        if (convertible == null) {
+            throw new IllegalArgumentException(source.getName() + " is not annotated by @Convertible");
+        }
+        return convertible.value();
+    }
+
+    /**
+     * Find the classes annotated by {@link Convertible} in the given class directory.
+     *
+     * @param directory   the class directory
+     * @param classLoader the class loader to load the classes
+     *
+     * @return the annotated classes
+     *
+     * @throws IOException if the class directory cannot be read
+     */
+    private static Class<?>[] scan(Path directory, ClassLoader classLoader) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.toString().endsWith(".class"))
+                    .map(file -> directory.relativize(file).toString()
+                            .replace(file.getFileSystem().getSeparator(), "."))
+                    .map(name -> load(name.substring(0, name.length() - ".class".length()), classLoader))
+                    .filter(clazz -> clazz != null && clazz.isAnnotationPresent(Convertible.class))
+                    .collect(Collectors.toList())
+                    .toArray(new Class<?>[0]);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Class<?> load(String name, ClassLoader classLoader) {
+        try {
+            return Class.forName(name, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            // Classes that cannot be loaded cannot be converted either.
+            return null;
+        }
+    }
+
+    /**
+     * The generator of {@link BeanCopier} naming the generated class after the source bean.
+     */
+    private static final class Generator extends BeanCopier.Generator {
+
+        Generator(Class<?> source, Class<?> target, boolean useConverter) {
+            setSource(source);
+            setTarget(target);
+            setUseConverter(useConverter);
+            setNamePrefix(source.getName());
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        protected Class generate(ClassLoaderData data) {
+            Class type = super.generate(data);
+            if (getAttemptLoad() && type.getClassLoader() != data.getClassLoader()) {
+                // The loaded class copies the classes of the same names visible from a parent class loader.
+                setAttemptLoad(false);
+                return super.generate(data);
+            }
+            return type;
+        }
+
+        String getGeneratedClassName() {
+            return getClassName();
+        }
+    }
+
+    /**
+     * The default strategy of cglib, which keeps the bytes of the generated class.
+     */
+    private static final class CapturingStrategy extends DefaultGeneratorStrategy {
+
+        private byte[] bytes;
+
+        @Override
+        public byte[] generate(ClassGenerator generator) throws Exception {
+            bytes = super.generate(generator);
+            return bytes;
+        }
+    }
+
+}
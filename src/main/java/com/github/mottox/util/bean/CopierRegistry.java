@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.util.function.BiFunction;
+
+import net.sf.cglib.beans.BeanCopier;
+import net.sf.cglib.core.Converter;
+
+/**
+ * The registry of generated copiers shared by all {@link BeanConverterImpl} instances in the process.
+ * <p>
+ * A {@link BeanCopier} using a converter does not depend on the converter, which is passed to every copy, so one
+ * copier per class pair serves every {@link BeanConverter} of {@link CopyEngine#CGLIB}, each with its own converter.
+ * The classes generated by {@link BytecodeCopierGenerator} are shared as well, since its converters are passed to the
+ * constructor. The registry is cached like the copiers of converters, so it does not keep any class loader reachable.
+ * <p>
+ * The registry is process-wide like the cache of {@link BeanUtils}, so it is bounded by the same system property
+ * {@link BeanUtils#MAXIMUM_CACHE_SIZE_PROPERTY}. Converters limited by {@link BeanConverterBuilder#maximumCacheSize}
+ * keep their own copiers instead, so that the limit bounds every copier they hold.
+ *
+ * @author Robin Wang
+ */
+final class CopierRegistry {
+
+    /**
+     * The {@link BeanCopier}s using a converter by source type and target type.
+     */
+    private static final ClassPairCache<BeanCopier> BEAN_COPIERS =
+            new ClassPairCache<>(Integer.getInteger(BeanUtils.MAXIMUM_CACHE_SIZE_PROPERTY, 0));
+
+    /**
+     * The function creating a {@link BeanCopier} on a miss of <code>BEAN_COPIERS</code>.
+     */
+    private static final BiFunction<Class<?>, Class<?>, BeanCopier> BEAN_COPIER_FACTORY =
+            (source, target) -> CopierGenerator.beanCopier(source, target, true);
+
+    /**
+     * Private constructor.
+     */
+    private CopierRegistry() {
+    }
+
+    /**
+     * Get the shared {@link BeanCopier} of the given class pair, which copies by the {@link Converter} passed to
+     * {@link BeanCopier#copy(Object, Object, Converter)}.
+     *
+     * @param source the source class
+     * @param target the target class
+     *
+     * @return the bean copier of source class and target class
+     */
+    static BeanCopier beanCopier(Class<?> source, Class<?> target) {
+        return BEAN_COPIERS.get(source, target, BEAN_COPIER_FACTORY);
+    }
+
+    /**
+     * Evict the shared copiers of which the source type or the target type is the given class.
+     *
+     * @param clazz the class to evict
+     */
+    static void evict(Class<?> clazz) {
+        BEAN_COPIERS.evict(clazz);
+    }
+
+    /**
+     * Evict the shared copiers of which the source type or the target type is loaded by the given class loader.
+     *
+     * @param classLoader the class loader to evict
+     */
+    static void evict(ClassLoader classLoader) {
+        BEAN_COPIERS.evict(classLoader);
+    }
+
+    /**
+     * Evict all shared copiers.
+     */
+    static void clear() {
+        BEAN_COPIERS.clear();
+    }
+
+    /**
+     * Get the number of shared copiers.
+     *
+     * @return the number of shared copiers
+     */
+    static int size() {
+        return BEAN_COPIERS.size();
+    }
+
+}
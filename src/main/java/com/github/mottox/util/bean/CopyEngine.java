@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import net.sf.cglib.beans.BeanCopier;
+
+/**
+ * The engines a {@link BeanConverter} can use to copy properties between a source type and a target type.
+ *
+ * @author Robin Wang
+ * @see BeanConverterBuilder#engine(CopyEngine)
+ */
+public enum CopyEngine {
+
+    /**
+     * A cglib {@link BeanCopier} that calls the converter for every property on every copy.
+     */
+    CGLIB,
+
+    /**
+     * A mapping plan that binds the converter of every property once, when the copier of a class pair is
+     * created, and only runs the bound steps on every copy.
+     */
+    PLAN,
+
+    /**
+     * A class generated from the mapping plan, which only calls the converter for the properties that need one and
+     * copies primitive properties without boxing.
+     */
+    BYTECODE,
+
+    /**
+     * The steps of a mapping plan accessing properties through accessors spun by
+     * {@link java.lang.invoke.LambdaMetafactory}, which are much cheaper to create than a generated copier class.
+     */
+    LAMBDA
+
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.github.mottox.util.bean.BeanConverterImpl.ConverterAdapter;
+
+/**
+ * The deep conversion of a {@link BeanConverterImpl}, which converts nested beans to the declared types of the target
+ * properties when no {@link TypeConverter} matches, including the elements of containers converted by
+ * {@link ContainerConversion}.
+ * <p>
+ * The converters of nested beans are resolved once per value type and target type by the {@link ConverterAdapter},
+ * and nested beans are copied by the copiers cached by the converter. A conversion tracks the beans and containers it
+ * has converted by identity, so an object referenced twice in the source graph is converted once and cycles are
+ * reproduced rather than followed forever. A nested bean is created when it is reached but copied only after the bean
+ * referencing it, from a work queue, so deep graphs do not grow the stack. Beans used as set elements or map keys are
+ * copied right away since their hash codes must not change once inserted.
+ *
+ * @author Robin Wang
+ */
+final class DeepConversion {
+
+    /**
+     * The function looking up the copier of a source class and a target class.
+     */
+    private final BiFunction<Class<?>, Class<?>, Copier> copiers;
+
+    /**
+     * The function looking up the factory of a target class.
+     */
+    private final Function<Class<?>, Supplier<?>> factories;
+
+    /**
+     * The graph being converted by the current thread, if any.
+     */
+    private final ThreadLocal<Graph> graphs = new ThreadLocal<>();
+
+    /**
+     * Construct a new deep conversion.
+     *
+     * @param copiers   the function looking up the copier of a source class and a target class
+     * @param factories the function looking up the factory of a target class, which throws a
+     *                  {@link RuntimeException} if the class is not instantiable
+     */
+    DeepConversion(BiFunction<Class<?>, Class<?>, Copier> copiers, Function<Class<?>, Supplier<?>> factories) {
+        this.copiers = copiers;
+        this.factories = factories;
+    }
+
+    /**
+     * Wrap the copier of a class pair, so that a copy converts the whole graph of the source bean unless it is part
+     * of the conversion of an enclosing graph.
+     *
+     * @param copier the copier of a class pair
+     *
+     * @return the copier converting graphs
+     */
+    Copier copier(Copier copier) {
+        return (source, target) -> {
+            if (graphs.get() != null) {
+                copier.copy(source, target);
+                return;
+            }
+            Graph graph = new Graph();
+            graphs.set(graph);
+            try {
+                graph.put(source, target);
+                copier.copy(source, target);
+                graph.drain();
+            } finally {
+                graphs.remove();
+            }
+        };
+    }
+
+    /**
+     * Wrap the partial copier of a class pair like {@link #copier(Copier)}.
+     *
+     * @param copier the partial copier of a class pair
+     *
+     * @return the partial copier converting graphs
+     */
+    PartialCopier partialCopier(PartialCopier copier) {
+        return (source, target, changes) -> {
+            if (graphs.get() != null) {
+                copier.copy(source, target, changes);
+                return;
+            }
+            Graph graph = new Graph();
+            graphs.set(graph);
+            try {
+                graph.put(source, target);
+                copier.copy(source, target, changes);
+                graph.drain();
+            } finally {
+                graphs.remove();
+            }
+        };
+    }
+
+    /**
+     * Get the converter of values of the given type to a nested bean of the given type.
+     *
+     * @param sourceType the type of value
+     * @param targetType the target type
+     *
+     * @return the converter, or null if the types are not beans or the target type is not instantiable
+     */
+    TypeConverter<Object, Object> bean(Class<?> sourceType, Class<?> targetType) {
+        if (!isBean(sourceType) || !isBean(targetType)) {
+            return null;
+        }
+        try {
+            return new BeanStep(targetType, factories.apply(targetType));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the graph being converted by the current thread.
+     *
+     * @return the graph being converted, or null if no conversion is in progress
+     */
+    Graph graph() {
+        return graphs.get();
+    }
+
+    /**
+     * Determine if the given type is converted as a bean, which excludes primitive types, arrays, enums, containers
+     * and the types of the JDK.
+     */
+    static boolean isBean(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isEnum()
+                || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+            return false;
+        }
+        String name = type.getName();
+        return !name.startsWith("java.") && !name.startsWith("javax.");
+    }
+
+    /**
+     * The objects converted in a graph and the nested beans waiting to be copied.
+     */
+    static final class Graph {
+
+        private final Map<Object, Object> converted = new IdentityHashMap<>();
+
+        private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+
+        /**
+         * The depth of conversions whose nested beans must be copied right away.
+         */
+        int eager;
+
+        /**
+         * Get the object the given source has been converted to, if it is of the given type.
+         */
+        Object get(Object source, Class<?> type) {
+            Object target = converted.get(source);
+            return type.isInstance(target) ? target : null;
+        }
+
+        void put(Object source, Object target) {
+            converted.put(source, target);
+        }
+
+        void copy(Object source, Object target, Copier copier) {
+            if (eager > 0) {
+                copier.copy(source, target);
+            } else {
+                pending.add(new Pending(source, target, copier));
+            }
+        }
+
+        void drain() {
+            Pending next;
+            while ((next = pending.poll()) != null) {
+                next.copier.copy(next.source, next.target);
+            }
+        }
+    }
+
+    /**
+     * A nested bean created but not copied yet.
+     */
+    private static final class Pending {
+
+        private final Object source;
+
+        private final Object target;
+
+        private final Copier copier;
+
+        Pending(Object source, Object target, Copier copier) {
+            this.source = source;
+            this.target = target;
+            this.copier = copier;
+        }
+    }
+
+    /**
+     * The conversion of a value to a nested bean of a fixed type.
+     */
+    private final class BeanStep implements TypeConverter<Object, Object> {
+
+        private final Class<?> targetType;
+
+        private final Supplier<?> factory;
+
+        /**
+         * The last seen source type and its copier, see {@link BoundConverter}.
+         */
+        private Binding binding;
+
+        BeanStep(Class<?> targetType, Supplier<?> factory) {
+            this.targetType = targetType;
+            this.factory = factory;
+        }
+
+        @Override
+        public Object convert(Object value) {
+            Graph graph = graphs.get();
+            Object target = graph.get(value, targetType);
+            if (target == null) {
+                target = factory.get();
+                graph.put(value, target);
+                graph.copy(value, target, getCopier(value.getClass()));
+            }
+            return target;
+        }
+
+        private Copier getCopier(Class<?> sourceType) {
+            Binding current = binding;
+            if (current == null || current.sourceType != sourceType) {
+                current = new Binding(sourceType, copiers.apply(sourceType, targetType));
+                binding = current;
+            }
+            return current.copier;
+        }
+    }
+
+    /**
+     * A source type and its copier.
+     */
+    private static final class Binding {
+
+        private final Class<?> sourceType;
+
+        private final Copier copier;
+
+        Binding(Class<?> sourceType, Copier copier) {
+            this.sourceType = sourceType;
+            this.copier = copier;
+        }
+    }
+
+}
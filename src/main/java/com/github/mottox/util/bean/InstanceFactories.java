@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * The factories creating instances of target types by their no-arg constructors.
+ * <p>
+ * A factory is a {@link Supplier} spun by {@link LambdaMetafactory} for the constructor, so creating an instance
+ * costs the same as a <code>new</code> expression. If the constructor is not accessible from this package, or the
+ * class is not visible by name from the class loader of this library, a method handle of the constructor is used
+ * instead. Factories are cached per class and shared by {@link BeanUtils} and all
+ * {@link BeanConverter}s.
+ *
+ * @author Robin Wang
+ */
+final class InstanceFactories {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType SUPPLIER_TYPE = MethodType.methodType(Object.class);
+
+    private static final ClassValue<Supplier<?>> FACTORIES = new ClassValue<Supplier<?>>() {
+        @Override
+        protected Supplier<?> computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    /**
+     * Private constructor.
+     */
+    private InstanceFactories() {
+    }
+
+    /**
+     * Get the factory of the given class.
+     *
+     * @param clazz the class
+     * @param <T>   the type of instance
+     *
+     * @return the factory creating instances of the given class
+     *
+     * @throws RuntimeException if the class has no no-arg constructor or is not instantiable
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Supplier<T> get(Class<T> clazz) {
+        return (Supplier<T>) FACTORIES.get(clazz);
+    }
+
+    private static Supplier<?> create(Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())) {
+            throw new RuntimeException("fail to create instance of type " + type.getName(),
+                    new InstantiationException(type.getName()));
+        }
+
+        Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("fail to create instance of type " + type.getName(), e);
+        }
+
+        if (!LambdaCopier.isVisible(type)) {
+            // The spun supplier would instantiate another class of the same name.
+            return handle(type, constructor);
+        }
+
+        try {
+            MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                    SUPPLIER_TYPE, handle, MethodType.methodType(type));
+            return (Supplier<?>) site.getTarget().invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // The constructor is not accessible from this class, fall back to a method handle.
+            return handle(type, constructor);
+        }
+    }
+
+    private static Supplier<?> handle(Class<?> type, Constructor<?> constructor) {
+        MethodHandle handle;
+        try {
+            constructor.setAccessible(true);
+            handle = LOOKUP.unreflectConstructor(constructor).asType(SUPPLIER_TYPE);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new RuntimeException("fail to create instance of type " + type.getName(), e);
+        }
+        return () -> {
+            try {
+                return (Object) handle.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("fail to create instance of type " + type.getName(), e);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The {@link ConversionMetrics} that keep counters in memory and expose them as a {@link ConversionMetricsMXBean},
+ * which is registered to the platform MBean server by {@link #register(String)}.
+ * <p>
+ * The counters of a class pair or a converter are looked up by identity of the classes, so recording an event does
+ * not allocate once the pair has been seen. The counters are exposed by the names of the classes, since the attributes
+ * of an MXBean are keyed by strings, so classes of the same name loaded by different class loaders, e.g. before and
+ * after a redeployment, share their counters. The owners of registered copier caches are referenced weakly, so the
+ * metrics do not keep discarded converters reachable.
+ *
+ * <pre>
+ * JmxConversionMetrics metrics = new JmxConversionMetrics();
+ * metrics.register("converter");
+ * BeanConverter converter = BeanConverterBuilder.create().metrics(metrics).build();
+ * </pre>
+ *
+ * @author Robin Wang
+ */
+public class JmxConversionMetrics implements ConversionMetrics, ConversionMetricsMXBean {
+
+    /**
+     * The domain of the object names of registered metrics.
+     */
+    public static final String DOMAIN = "com.github.mottox.util.bean";
+
+    /**
+     * The number of buckets of a conversion time histogram.
+     */
+    private static final int HISTOGRAM_BUCKETS = 40;
+
+    /**
+     * The functions getting the number of cached copiers by their owners.
+     */
+    private final Map<Object, ToIntFunction<Object>> copierCaches = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final LongAdder copierCacheHits = new LongAdder();
+
+    private final LongAdder copierCacheMisses = new LongAdder();
+
+    private final LongAdder copierCreations = new LongAdder();
+
+    private final LongAdder copierCreationNanos = new LongAdder();
+
+    private final LongAccumulator copierCreationMaxNanos = new LongAccumulator(Math::max, 0);
+
+    private final Counters<Conversion> conversions = new Counters<>(name -> new Conversion());
+
+    private final Counters<LongAdder> converterInvocations = new Counters<>(name -> new LongAdder());
+
+    private final Counters<LongAdder> unmatchedProperties = new Counters<>(name -> new LongAdder());
+
+    /**
+     * Register these metrics to the platform MBean server with the object name
+     * <code>com.github.mottox.util.bean:type=ConversionMetrics,name=&lt;name&gt;</code>.
+     *
+     * @param name the name of the metrics, e.g. the name of the converter
+     *
+     * @return the object name of the registered metrics
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=ConversionMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new RuntimeException("fail to register conversion metrics " + name, e);
+        }
+    }
+
+    /**
+     * Unregister metrics from the platform MBean server.
+     *
+     * @param objectName the object name returned by {@link #register(String)}
+     */
+    public static void unregister(ObjectName objectName) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new RuntimeException("fail to unregister conversion metrics " + objectName, e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> void registerCopierCache(T owner, ToIntFunction<? super T> size) {
+        copierCaches.put(owner, (ToIntFunction<Object>) size);
+    }
+
+    @Override
+    public void copierCacheHit(Class<?> source, Class<?> target) {
+        copierCacheHits.increment();
+    }
+
+    @Override
+    public void copierCacheMiss(Class<?> source, Class<?> target) {
+        copierCacheMisses.increment();
+    }
+
+    @Override
+    public void copierCreated(Class<?> source, Class<?> target, long nanos) {
+        copierCreations.increment();
+        copierCreationNanos.add(nanos);
+        copierCreationMaxNanos.accumulate(nanos);
+    }
+
+    @Override
+    public void converted(Class<?> source, Class<?> target, long nanos) {
+        conversions.get(source, target).record(nanos);
+    }
+
+    @Override
+    public void converterInvoked(Class<?> sourceType, Class<?> targetType) {
+        converterInvocations.get(sourceType, targetType).increment();
+    }
+
+    @Override
+    public void noConverterMatched(Class<?> valueType, Class<?> targetType) {
+        unmatchedProperties.get(valueType, targetType).increment();
+    }
+
+    @Override
+    public long getCopierCacheHits() {
+        return copierCacheHits.sum();
+    }
+
+    @Override
+    public long getCopierCacheMisses() {
+        return copierCacheMisses.sum();
+    }
+
+    @Override
+    public int getCopierCacheSize() {
+        int size = 0;
+        synchronized (copierCaches) {
+            for (Map.Entry<Object, ToIntFunction<Object>> cache : copierCaches.entrySet()) {
+                Object owner = cache.getKey();
+                if (owner != null) {
+                    size += cache.getValue().applyAsInt(owner);
+                }
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public long getCopierCreations() {
+        return copierCreations.sum();
+    }
+
+    @Override
+    public long getCopierCreationNanos() {
+        return copierCreationNanos.sum();
+    }
+
+    @Override
+    public long getCopierCreationMaxNanos() {
+        return copierCreationMaxNanos.get();
+    }
+
+    @Override
+    public Map<String, Long> getConversionCounts() {
+        return conversions.snapshot(conversion -> conversion.count.sum());
+    }
+
+    @Override
+    public Map<String, Long> getConversionNanos() {
+        return conversions.snapshot(conversion -> conversion.nanos.sum());
+    }
+
+    @Override
+    public Map<String, long[]> getConversionHistograms() {
+        return conversions.snapshot(Conversion::histogram);
+    }
+
+    @Override
+    public Map<String, Long> getConverterInvocations() {
+        return converterInvocations.snapshot(LongAdder::sum);
+    }
+
+    @Override
+    public Map<String, Long> getUnmatchedProperties() {
+        return unmatchedProperties.snapshot(LongAdder::sum);
+    }
+
+    @Override
+    public void reset() {
+        copierCacheHits.reset();
+        copierCacheMisses.reset();
+        copierCreations.reset();
+        copierCreationNanos.reset();
+        copierCreationMaxNanos.reset();
+        conversions.clear();
+        converterInvocations.clear();
+        unmatchedProperties.clear();
+    }
+
+    /**
+     * The counters of class pairs, looked up by identity of the classes and listed by their names.
+     *
+     * @param <C> the type of counter
+     */
+    private static final class Counters<C> {
+
+        private final ClassPairCache<C> cache = new ClassPairCache<>();
+
+        private final Map<String, C> counters = new ConcurrentHashMap<>();
+
+        private final BiFunction<Class<?>, Class<?>, C> factory;
+
+        Counters(Function<String, C> factory) {
+            this.factory = (source, target) ->
+                    counters.computeIfAbsent(source.getName() + " -> " + target.getName(), factory);
+        }
+
+        C get(Class<?> source, Class<?> target) {
+            return cache.get(source, target, factory);
+        }
+
+        <V> Map<String, V> snapshot(Function<C, V> mapper) {
+            Map<String, V> snapshot = new TreeMap<>();
+            counters.forEach((name, counter) -> snapshot.put(name, mapper.apply(counter)));
+            return snapshot;
+        }
+
+        void clear() {
+            cache.clear();
+            counters.clear();
+        }
+    }
+
+    /**
+     * The counters of the conversions of a class pair.
+     */
+    private static final class Conversion {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        private final AtomicLongArray buckets = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+        void record(long nanos) {
+            count.increment();
+            this.nanos.add(nanos);
+            int bucket = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+            buckets.incrementAndGet(Math.min(bucket, HISTOGRAM_BUCKETS - 1));
+        }
+
+        long[] histogram() {
+            long[] histogram = new long[HISTOGRAM_BUCKETS];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = buckets.get(i);
+            }
+            return histogram;
+        }
+    }
+
+}
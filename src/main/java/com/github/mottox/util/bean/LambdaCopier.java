@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.github.mottox.util.bean.MappingPlan.PropertyMapping;
+
+import net.sf.cglib.core.ReflectUtils;
+
+/**
+ * A {@link Copier} that runs the steps of a {@link MappingPlan}, accessing properties through accessors spun by
+ * {@link LambdaMetafactory}.
+ * <p>
+ * Spinning an accessor is much cheaper than generating and loading a copier class, and the accessors are plain
+ * interface implementations the JIT compiler inlines like a direct call. If an accessor cannot be spun, e.g. when
+ * the declaring class is not accessible, or when the types of the method are not visible by name from the class
+ * loader of this library, a method handle is used instead.
+ *
+ * @author Robin Wang
+ */
+final class LambdaCopier implements Copier {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Step[] steps;
+
+    /**
+     * Construct a new copier of the given plan.
+     *
+     * @param plan the mapping plan
+     */
+    LambdaCopier(MappingPlan plan) {
+        List<PropertyMapping> mappings = plan.getMappings();
+        this.steps = new Step[mappings.size()];
+        for (int i = 0; i < steps.length; i++) {
+            PropertyMapping mapping = mappings.get(i);
+            steps[i] = new Step(getter(mapping.getGetter()), setter(mapping.getSetter()), mapping.getConverter());
+        }
+    }
+
+    @Override
+    public void copy(Object source, Object target) {
+        for (Step step : steps) {
+            step.copy(source, target);
+        }
+    }
+
+    /**
+     * Create a partial copier of the given plan. The values of the target bean are read by its getters to tell whether
+     * a property has changed, which is only done if the changes are requested.
+     *
+     * @param plan the mapping plan
+     *
+     * @return the partial copier
+     */
+    static PartialCopier partial(MappingPlan plan) {
+        Map<String, Method> currentGetters = new HashMap<>();
+        for (PropertyDescriptor getter : ReflectUtils.getBeanGetters(plan.getTargetType())) {
+            currentGetters.put(getter.getName(), getter.getReadMethod());
+        }
+
+        List<PropertyMapping> mappings = plan.getMappings();
+        PartialStep[] steps = new PartialStep[mappings.size()];
+        for (int i = 0; i < steps.length; i++) {
+            PropertyMapping mapping = mappings.get(i);
+            Method current = currentGetters.get(mapping.getName());
+            steps[i] = new PartialStep(mapping.getName(), getter(mapping.getGetter()), setter(mapping.getSetter()),
+                    mapping.getConverter(), current == null ? null : getter(current), mapping.getTargetType());
+        }
+        return (source, target, changes) -> {
+            for (PartialStep step : steps) {
+                step.copy(source, target, changes);
+            }
+        };
+    }
+
+    /**
+     * Get the accessor that invokes the given getter.
+     *
+     * @param method the getter
+     *
+     * @return the accessor of getter
+     */
+    static Getter getter(Method method) {
+        Class<?> type = ClassUtils.primitiveToWrapper(method.getReturnType());
+        Getter getter = spin(Getter.class, "get", GETTER_TYPE, method,
+                MethodType.methodType(type, method.getDeclaringClass()));
+        if (getter != null) {
+            return getter;
+        }
+
+        MethodHandle handle = PlanCopier.getter(method);
+        return bean -> {
+            try {
+                return (Object) handle.invokeExact(bean);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("fail to invoke " + method, e);
+            }
+        };
+    }
+
+    /**
+     * Get the accessor that invokes the given setter.
+     * Values assigned to primitive properties are converted by {@link Primitives}.
+     *
+     * @param method the setter
+     *
+     * @return the accessor of setter
+     */
+    static Setter setter(Method method) {
+        Class<?> type = method.getParameterTypes()[0];
+        Class<?> wrapper = ClassUtils.primitiveToWrapper(type);
+        Setter setter = spin(Setter.class, "set", SETTER_TYPE, method,
+                MethodType.methodType(void.class, method.getDeclaringClass(), wrapper));
+        if (setter == null) {
+            MethodHandle handle = PlanCopier.setter(method);
+            return (bean, value) -> {
+                try {
+                    handle.invokeExact(bean, value);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException("fail to invoke " + method, e);
+                }
+            };
+        }
+        if (type.isPrimitive()) {
+            // The spun accessor only accepts the exact wrapper type.
+            Setter exact = setter;
+            return (bean, value) -> exact.set(bean, value != null && value.getClass() == wrapper
+                    ? value : Primitives.wrap(value, type));
+        }
+        return setter;
+    }
+
+    /**
+     * Spin an implementation of the given functional interface that invokes the given method.
+     *
+     * @param type             the functional interface
+     * @param name             the name of the functional method
+     * @param methodType       the erased type of the functional method
+     * @param method           the method to invoke
+     * @param instantiatedType the type of the functional method the implementation enforces
+     * @param <T>              the type of functional interface
+     *
+     * @return the implementation, or null if the method is not accessible
+     */
+    private static <T> T spin(Class<T> type, String name, MethodType methodType, Method method,
+                              MethodType instantiatedType) {
+        if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())
+                || !Arrays.stream(method.getParameterTypes()).allMatch(LambdaCopier::isVisible)) {
+            // The spun class refers to the types by name, which would resolve to other classes or none at all.
+            return null;
+        }
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, name, MethodType.methodType(type), methodType,
+                    handle, instantiatedType);
+            return type.cast(site.getTarget().invoke());
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // The method is not accessible from this class, see the caller for the fallback.
+            return null;
+        }
+    }
+
+    /**
+     * Check whether the given type is resolved to itself by name from the class loader of this library.
+     * Classes spun by {@link LambdaMetafactory} are defined in this library, so any type they refer to must be.
+     *
+     * @param type the type to check
+     *
+     * @return true if the type is visible from this library
+     */
+    static boolean isVisible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        ClassLoader classLoader = LambdaCopier.class.getClassLoader();
+        if (type.isPrimitive() || type.getClassLoader() == null || type.getClassLoader() == classLoader) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, classLoader) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * The accessor of a getter.
+     */
+    @FunctionalInterface
+    interface Getter {
+
+        Object get(Object bean);
+    }
+
+    /**
+     * The accessor of a setter.
+     */
+    @FunctionalInterface
+    interface Setter {
+
+        void set(Object bean, Object value);
+    }
+
+    /**
+     * A step that copies one property.
+     */
+    private static final class Step {
+
+        private final Getter getter;
+
+        private final Setter setter;
+
+        private final TypeConverter<Object, Object> converter;
+
+        Step(Getter getter, Setter setter, TypeConverter<Object, Object> converter) {
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+        }
+
+        void copy(Object source, Object target) {
+            Object value = getter.get(source);
+            setter.set(target, value == null ? null : converter.convert(value));
+        }
+    }
+
+    /**
+     * A step that copies one property unless its value is null.
+     */
+    private static final class PartialStep {
+
+        private final String name;
+
+        private final Getter getter;
+
+        private final Setter setter;
+
+        private final TypeConverter<Object, Object> converter;
+
+        /**
+         * The getter of the target property, or null if it is not readable.
+         */
+        private final Getter current;
+
+        private final Class<?> targetType;
+
+        PartialStep(String name, Getter getter, Setter setter, TypeConverter<Object, Object> converter, Getter current,
+                    Class<?> targetType) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+            this.current = current;
+            this.targetType = targetType;
+        }
+
+        void copy(Object source, Object target, Collection<? super String> changes) {
+            Object value = getter.get(source);
+            if (value == null) {
+                return;
+            }
+            Object converted = converter.convert(value);
+            if (converted == null) {
+                return;
+            }
+            if (changes != null) {
+                if (targetType.isPrimitive()) {
+                    // Compare the value the property would hold, e.g. a long rather than an integer.
+                    converted = Primitives.wrap(converted, targetType);
+                }
+                if (current != null && Objects.equals(current.get(target), converted)) {
+                    return;
+                }
+                changes.add(name);
+            }
+            setter.set(target, converted);
+        }
+    }
+
+}
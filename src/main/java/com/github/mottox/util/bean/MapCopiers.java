@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.beans.PropertyDescriptor;
+import java.util.Map;
+
+import com.github.mottox.util.bean.BeanConverterImpl.ConverterAdapter;
+import com.github.mottox.util.bean.LambdaCopier.Getter;
+import com.github.mottox.util.bean.LambdaCopier.Setter;
+
+import net.sf.cglib.core.ReflectUtils;
+
+/**
+ * The copiers between beans and maps of property names to values, e.g. for JSON payloads and caches.
+ * <p>
+ * The accessors of the properties of a bean class are spun once by {@link LambdaCopier} and shared by all converters.
+ * Property names are interned, so the maps created from beans of the same class share their key instances and a
+ * lookup with a constant property name compares the strings by identity. The values copied from a map are converted
+ * to the types of the properties by the {@link TypeConverter}s of the converter, resolved once per property and
+ * type of value.
+ *
+ * @author Robin Wang
+ */
+final class MapCopiers {
+
+    /**
+     * The copier of a map into a map.
+     */
+    @SuppressWarnings("unchecked")
+    static final Copier MAP_TO_MAP = (source, target) -> ((Map<Object, Object>) target).putAll((Map<?, ?>) source);
+
+    private static final ClassValue<Property[]> READABLE = new ClassValue<Property[]>() {
+        @Override
+        protected Property[] computeValue(Class<?> type) {
+            PropertyDescriptor[] descriptors = ReflectUtils.getBeanGetters(type);
+            Property[] properties = new Property[descriptors.length];
+            for (int i = 0; i < properties.length; i++) {
+                PropertyDescriptor descriptor = descriptors[i];
+                properties[i] = new Property(descriptor.getName().intern(), descriptor.getPropertyType(),
+                        LambdaCopier.getter(descriptor.getReadMethod()), null);
+            }
+            return properties;
+        }
+    };
+
+    private static final ClassValue<Property[]> WRITABLE = new ClassValue<Property[]>() {
+        @Override
+        protected Property[] computeValue(Class<?> type) {
+            PropertyDescriptor[] descriptors = ReflectUtils.getBeanSetters(type);
+            Property[] properties = new Property[descriptors.length];
+            for (int i = 0; i < properties.length; i++) {
+                PropertyDescriptor descriptor = descriptors[i];
+                properties[i] = new Property(descriptor.getName().intern(),
+                        descriptor.getWriteMethod().getParameterTypes()[0], null,
+                        LambdaCopier.setter(descriptor.getWriteMethod()));
+            }
+            return properties;
+        }
+    };
+
+    /**
+     * Private constructor.
+     */
+    private MapCopiers() {
+    }
+
+    /**
+     * Get the initial capacity of a hash map that holds the readable properties of the given bean class without
+     * being resized.
+     *
+     * @param type the bean class
+     *
+     * @return the initial capacity
+     */
+    static int capacity(Class<?> type) {
+        return (int) (READABLE.get(type).length / .75F) + 1;
+    }
+
+    /**
+     * Get the copier of the readable properties of a bean into a map.
+     *
+     * @param source the bean class
+     *
+     * @return the copier of the bean class into a map
+     */
+    static Copier toMap(Class<?> source) {
+        Property[] properties = READABLE.get(source);
+        return (bean, target) -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> map = (Map<String, Object>) target;
+            for (Property property : properties) {
+                map.put(property.name, property.getter.get(bean));
+            }
+        };
+    }
+
+    /**
+     * Get the copier of a map into the writable properties of a bean. A property is only copied if the map contains
+     * its name.
+     *
+     * @param target  the bean class
+     * @param adapter the adapter to resolve the converters of values
+     *
+     * @return the copier of a map into the bean class
+     */
+    static Copier fromMap(Class<?> target, ConverterAdapter adapter) {
+        return new FromMap(WRITABLE.get(target), adapter);
+    }
+
+    /**
+     * A readable or writable property of a bean class.
+     */
+    private static final class Property {
+
+        private final String name;
+
+        private final Class<?> type;
+
+        private final Getter getter;
+
+        private final Setter setter;
+
+        Property(String name, Class<?> type, Getter getter, Setter setter) {
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * The copier of a map into a bean, which remembers the converter of the last seen type of value of every
+     * property.
+     */
+    private static final class FromMap implements Copier {
+
+        private final Property[] properties;
+
+        private final ConverterAdapter adapter;
+
+        /**
+         * The last seen type of value and its converter per property, which are replaced rather than mutated so that
+         * they can be shared between threads without synchronization.
+         */
+        private final Binding[] bindings;
+
+        FromMap(Property[] properties, ConverterAdapter adapter) {
+            this.properties = properties;
+            this.adapter = adapter;
+            this.bindings = new Binding[properties.length];
+        }
+
+        @Override
+        public void copy(Object source, Object target) {
+            Map<?, ?> map = (Map<?, ?>) source;
+            for (int i = 0; i < properties.length; i++) {
+                Property property = properties[i];
+                Object value = map.get(property.name);
+                if (value == null) {
+                    if (map.containsKey(property.name)) {
+                        property.setter.set(target, null);
+                    }
+                    continue;
+                }
+                property.setter.set(target, getConverter(i, value.getClass()).convert(value));
+            }
+        }
+
+        private TypeConverter<Object, Object> getConverter(int index, Class<?> valueType) {
+            Binding current = bindings[index];
+            if (current == null || current.valueType != valueType) {
+                current = new Binding(valueType, adapter.lookup(valueType, properties[index].type));
+                bindings[index] = current;
+            }
+            return current.converter;
+        }
+    }
+
+    /**
+     * A type of value and its converter.
+     */
+    private static final class Binding {
+
+        private final Class<?> valueType;
+
+        private final TypeConverter<Object, Object> converter;
+
+        Binding(Class<?> valueType, TypeConverter<Object, Object> converter) {
+            this.valueType = valueType;
+            this.converter = converter;
+        }
+    }
+
+}
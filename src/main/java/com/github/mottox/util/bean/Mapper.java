@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+/**
+ * A mapper of source beans of a fixed type to target beans of a fixed type, see
+ * {@link BeanConverter#mapper(Class, Class)}. The copier and the factory of target beans are resolved when the mapper
+ * is created, so mapping does no lookups at all, and a mapper stored in a static final field can be inlined as a
+ * whole by the JIT compiler.
+ * <p>
+ * Properties are copied by the declared types of the mapper, so the properties which only subclasses of the source
+ * type or the target type declare are not copied. A mapper keeps its copier, so it is not affected by the eviction of
+ * the cached copiers and must be discarded along with the class loaders of its types.
+ *
+ * @param <S> the type of source bean
+ * @param <T> the type of target bean
+ *
+ * @author Robin Wang
+ */
+public interface Mapper<S, T> {
+
+    /**
+     * Convert the given source bean to a new target bean.
+     *
+     * @param source the source bean
+     *
+     * @return the target bean, or null if the source bean is null
+     */
+    T map(S source);
+
+    /**
+     * Copy the property values of the given source bean into the target bean.
+     *
+     * @param source the source bean
+     * @param target the target bean
+     */
+    void copy(S source, T target);
+
+    /**
+     * Get the type of source beans.
+     *
+     * @return the type of source beans
+     */
+    Class<S> getSourceType();
+
+    /**
+     * Get the type of target beans.
+     *
+     * @return the type of target beans
+     */
+    Class<T> getTargetType();
+
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.github.mottox.util.bean.BeanConverterImpl.ConverterAdapter;
+
+import net.sf.cglib.beans.BeanCopier;
+import net.sf.cglib.core.ReflectUtils;
+
+/**
+ * The mapping plan of a source type and a target type, which resolves the properties to copy and binds the
+ * {@link TypeConverter} of every property once.
+ * <p>
+ * Properties are matched by the same rules as a {@link BeanCopier} using a converter: every writable property of the
+ * target type is mapped from the readable property of the same name of the source type, whatever their types are.
+ * {@link MappingRules} of the class pair may ignore target properties, map them from source properties of other names
+ * and bind their converters.
+ *
+ * @author Robin Wang
+ */
+final class MappingPlan {
+
+    private final Class<?> sourceType;
+
+    private final Class<?> targetType;
+
+    private final List<PropertyMapping> mappings;
+
+    private MappingPlan(Class<?> sourceType, Class<?> targetType, List<PropertyMapping> mappings) {
+        this.sourceType = sourceType;
+        this.targetType = targetType;
+        this.mappings = Collections.unmodifiableList(mappings);
+    }
+
+    /**
+     * Create the mapping plan of the given source type and target type.
+     *
+     * @param sourceType the source type
+     * @param targetType the target type
+     * @param adapter    the adapter to resolve the converters of properties
+     *
+     * @return the mapping plan
+     */
+    static MappingPlan create(Class<?> sourceType, Class<?> targetType, ConverterAdapter adapter) {
+        return create(sourceType, targetType, adapter, null);
+    }
+
+    /**
+     * Create the mapping plan of the given source type and target type, converting the collections, arrays and maps
+     * of elements that need to be converted by the given container conversion.
+     *
+     * @param sourceType the source type
+     * @param targetType the target type
+     * @param adapter    the adapter to resolve the converters of properties
+     * @param containers the conversion of containers, or null if containers are converted like other properties
+     *
+     * @return the mapping plan
+     */
+    static MappingPlan create(Class<?> sourceType, Class<?> targetType, ConverterAdapter adapter,
+                              ContainerConversion containers) {
+        return create(sourceType, targetType, adapter, containers, MappingRules.NONE);
+    }
+
+    /**
+     * Create the mapping plan of the given source type and target type like
+     * {@link #create(Class, Class, ConverterAdapter, ContainerConversion)}, applying the given mapping rules.
+     *
+     * @param sourceType the source type
+     * @param targetType the target type
+     * @param adapter    the adapter to resolve the converters of properties
+     * @param containers the conversion of containers, or null if containers are converted like other properties
+     * @param rules      the mapping rules of the class pair
+     *
+     * @return the mapping plan
+     */
+    static MappingPlan create(Class<?> sourceType, Class<?> targetType, ConverterAdapter adapter,
+                              ContainerConversion containers, MappingRules rules) {
+        Map<String, PropertyDescriptor> getters = new HashMap<>();
+        for (PropertyDescriptor getter : ReflectUtils.getBeanGetters(sourceType)) {
+            getters.put(getter.getName(), getter);
+        }
+
+        List<PropertyMapping> mappings = new ArrayList<>();
+        for (PropertyDescriptor setter : ReflectUtils.getBeanSetters(targetType)) {
+            if (rules.isIgnored(setter.getName())) {
+                continue;
+            }
+            PropertyDescriptor getter = getters.get(rules.sourceName(setter.getName()));
+            if (getter != null) {
+                Method readMethod = getter.getReadMethod();
+                Method writeMethod = setter.getWriteMethod();
+                TypeConverter<Object, Object> converter = rules.converter(setter.getName());
+                if (converter == null && containers != null) {
+                    converter = containers.bind(readMethod.getGenericReturnType(),
+                            writeMethod.getGenericParameterTypes()[0], adapter);
+                }
+                if (converter == null) {
+                    converter = bind(readMethod.getReturnType(), writeMethod.getParameterTypes()[0], adapter);
+                }
+                mappings.add(new PropertyMapping(setter.getName(), readMethod, writeMethod, converter));
+            }
+        }
+        return new MappingPlan(sourceType, targetType, mappings);
+    }
+
+    /**
+     * Create the mapping plan of the given source type and target type that only maps the properties whose target
+     * types are assignable from their source types, like a {@link BeanCopier} without a converter.
+     *
+     * @param sourceType the source type
+     * @param targetType the target type
+     *
+     * @return the mapping plan, in which every property is assigned directly
+     */
+    static MappingPlan assignableTypes(Class<?> sourceType, Class<?> targetType) {
+        Map<String, PropertyDescriptor> getters = new HashMap<>();
+        for (PropertyDescriptor getter : ReflectUtils.getBeanGetters(sourceType)) {
+            getters.put(getter.getName(), getter);
+        }
+
+        List<PropertyMapping> mappings = new ArrayList<>();
+        for (PropertyDescriptor setter : ReflectUtils.getBeanSetters(targetType)) {
+            PropertyDescriptor getter = getters.get(setter.getName());
+            if (getter != null && setter.getPropertyType().isAssignableFrom(getter.getPropertyType())) {
+                mappings.add(new PropertyMapping(setter.getName(), getter.getReadMethod(), setter.getWriteMethod(),
+                        ConverterAdapter.PASS_THROUGH));
+            }
+        }
+        return new MappingPlan(sourceType, targetType, mappings);
+    }
+
+    /**
+     * Create the mapping plan of the given type to itself that maps every property to itself, binding the converter
+     * of every property by its declared type, e.g. to clone the values of mutable types.
+     *
+     * @param type    the type
+     * @param binding the function binding the converter of a property by its declared type, which returns
+     *                {@link ConverterAdapter#PASS_THROUGH} for direct assignment
+     *
+     * @return the mapping plan
+     */
+    static MappingPlan cloning(Class<?> type, Function<Class<?>, TypeConverter<Object, Object>> binding) {
+        List<PropertyMapping> mappings = new ArrayList<>();
+        for (PropertyMapping mapping : assignableTypes(type, type).getMappings()) {
+            mappings.add(new PropertyMapping(mapping.getName(), mapping.getGetter(), mapping.getSetter(),
+                    binding.apply(mapping.getTargetType())));
+        }
+        return new MappingPlan(type, type, mappings);
+    }
+
+    /**
+     * Bind the converter of a property.
+     * If every value of the source property is exactly of its declared type, the converter is resolved right now.
+     * Otherwise the converter depends on the type of value at runtime, unless the target type is assignable from the
+     * declared source type, which takes precedence over any {@link TypeConverter}.
+     *
+     * @param sourceType the declared type of source property
+     * @param targetType the declared type of target property
+     * @param adapter    the adapter to resolve the converter
+     *
+     * @return the converter of the property
+     */
+    static TypeConverter<Object, Object> bind(Class<?> sourceType, Class<?> targetType, ConverterAdapter adapter) {
+        if (isExact(sourceType)) {
+            return adapter.lookup(ClassUtils.primitiveToWrapper(sourceType), targetType);
+        }
+        if (ClassUtils.isAssignable(sourceType, targetType, true)) {
+            return ConverterAdapter.PASS_THROUGH;
+        }
+        return value -> adapter.lookup(value.getClass(), targetType).convert(value);
+    }
+
+    /**
+     * Determine if every value of the given type is exactly of the type, or of its wrapper type if it is primitive.
+     *
+     * @param type the type
+     *
+     * @return true if no value of the given type can be of a subtype
+     */
+    private static boolean isExact(Class<?> type) {
+        if (type.isArray()) {
+            return isExact(type.getComponentType());
+        }
+        return type.isPrimitive() || Modifier.isFinal(type.getModifiers());
+    }
+
+    Class<?> getSourceType() {
+        return sourceType;
+    }
+
+    Class<?> getTargetType() {
+        return targetType;
+    }
+
+    List<PropertyMapping> getMappings() {
+        return mappings;
+    }
+
+    /**
+     * The mapping of a source property to a target property.
+     */
+    static final class PropertyMapping {
+
+        private final String name;
+
+        private final Method getter;
+
+        private final Method setter;
+
+        /**
+         * The converter of non-null values, which is {@link ConverterAdapter#PASS_THROUGH} for direct assignment.
+         */
+        private final TypeConverter<Object, Object> converter;
+
+        PropertyMapping(String name, Method getter, Method setter, TypeConverter<Object, Object> converter) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Method getGetter() {
+            return getter;
+        }
+
+        Method getSetter() {
+            return setter;
+        }
+
+        Class<?> getSourceType() {
+            return getter.getReturnType();
+        }
+
+        Class<?> getTargetType() {
+            return setter.getParameterTypes()[0];
+        }
+
+        TypeConverter<Object, Object> getConverter() {
+            return converter;
+        }
+
+        boolean isDirect() {
+            return converter == ConverterAdapter.PASS_THROUGH;
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The rules of mapping the properties of a source type to the properties of a target type, which are applied when the
+ * {@link MappingPlan} of the class pair is created, so they cost nothing per copy. Properties are named by the
+ * properties of the target type, except the source properties renamed to them.
+ *
+ * @author Robin Wang
+ */
+final class MappingRules {
+
+    /**
+     * The rules mapping every property by the same name.
+     */
+    static final MappingRules NONE = new MappingRules(Collections.emptySet(), Collections.emptyMap(),
+            Collections.emptyMap());
+
+    /**
+     * The target properties which are not copied.
+     */
+    private final Set<String> ignored;
+
+    /**
+     * The names of source properties by the names of the target properties they are copied to.
+     */
+    private final Map<String, String> sourceNames;
+
+    /**
+     * The converters of non-null values by the names of target properties.
+     */
+    private final Map<String, TypeConverter<Object, Object>> converters;
+
+    private MappingRules(Set<String> ignored, Map<String, String> sourceNames,
+                         Map<String, TypeConverter<Object, Object>> converters) {
+        this.ignored = ignored;
+        this.sourceNames = sourceNames;
+        this.converters = converters;
+    }
+
+    /**
+     * Determine if the given target property is not copied.
+     *
+     * @param property the name of target property
+     *
+     * @return true if the property is ignored
+     */
+    boolean isIgnored(String property) {
+        return ignored.contains(property);
+    }
+
+    /**
+     * Get the name of the source property copied to the given target property.
+     *
+     * @param property the name of target property
+     *
+     * @return the name of source property, which is the same name unless it is renamed
+     */
+    String sourceName(String property) {
+        return sourceNames.getOrDefault(property, property);
+    }
+
+    /**
+     * Get the converter of the given target property.
+     *
+     * @param property the name of target property
+     *
+     * @return the converter of non-null values, or null if the converter is resolved like other properties
+     */
+    TypeConverter<Object, Object> converter(String property) {
+        return converters.get(property);
+    }
+
+    /**
+     * A builder of {@link MappingRules}.
+     */
+    static final class Builder {
+
+        private final Set<String> ignored = new HashSet<>();
+
+        private final Map<String, String> sourceNames = new HashMap<>();
+
+        private final Map<String, TypeConverter<Object, Object>> converters = new HashMap<>();
+
+        Builder ignore(String property) {
+            ignored.add(property);
+            return this;
+        }
+
+        Builder rename(String sourceProperty, String targetProperty) {
+            sourceNames.put(targetProperty, sourceProperty);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        Builder convert(String property, TypeConverter<?, ?> converter) {
+            converters.put(property, (TypeConverter<Object, Object>) converter);
+            return this;
+        }
+
+        MappingRules build() {
+            return new MappingRules(new HashSet<>(ignored), new HashMap<>(sourceNames), new HashMap<>(converters));
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.github.mottox.util.bean.BeanConverterImpl.ConverterAdapter;
+import com.github.mottox.util.bean.MappingPlan.PropertyMapping;
+
+import net.sf.cglib.core.ReflectUtils;
+
+/**
+ * The validation of a {@link MappingPlan} by a strict {@link BeanConverterImpl}, which runs once when the copier of a
+ * class pair is created, so copies are not checked at all.
+ * <p>
+ * Properties are checked by their declared types. A writable property of the target type is reported if there is no
+ * readable property of the source type to copy it from, if no {@link TypeConverter} is able to convert the declared
+ * type of the source property, or if its values may lose precision, i.e. an integral type assigned to a floating-point
+ * type that cannot represent all its values, e.g. <code>long</code> to <code>double</code>, or a lossy standard
+ * converter, e.g. {@link java.math.BigDecimal} to {@link Double}. A registered {@link TypeConverter} is never reported
+ * as lossy, since it converts on purpose. The properties of collections, arrays and maps are also checked by their
+ * generic element types, and reported if their elements need to be converted but no {@link TypeConverter} is able
+ * to. Ignored properties and properties with a converter bound by {@link MappingRules} are not reported.
+ * <p>
+ * Converters are resolved by the types of values at runtime, so a property of a type which is not final is only
+ * reported as unconvertible if no converter matches its declared type or any of its subtypes. The values of other
+ * subtypes are still converted to null at runtime.
+ *
+ * @author Robin Wang
+ */
+final class MappingValidation {
+
+    /**
+     * Private constructor.
+     */
+    private MappingValidation() {
+    }
+
+    /**
+     * Validate the given mapping plan.
+     *
+     * @param plan    the mapping plan
+     * @param adapter the adapter which has resolved the converters of properties
+     * @param rules   the mapping rules of the class pair
+     *
+     * @throws IllegalArgumentException if a property of the target type is unmapped, unconvertible or lossy
+     */
+    static void validate(MappingPlan plan, ConverterAdapter adapter, MappingRules rules) {
+        List<String> problems = new ArrayList<>();
+        Set<String> mapped = new HashSet<>();
+        for (PropertyMapping mapping : plan.getMappings()) {
+            mapped.add(mapping.getName());
+            if (rules.converter(mapping.getName()) != null) {
+                continue;
+            }
+            Class<?>[] elements = ContainerConversion.unconvertibleElements(mapping.getGetter().getGenericReturnType(),
+                    mapping.getSetter().getGenericParameterTypes()[0], adapter);
+            if (elements != null) {
+                problems.add("property " + mapping.getName() + " is unconvertible from element type "
+                        + elements[0].getName() + " to " + elements[1].getName());
+                continue;
+            }
+            if (ContainerConversion.isContainer(mapping.getConverter())) {
+                continue;
+            }
+            Class<?> sourceType = mapping.getSourceType();
+            Class<?> targetType = mapping.getTargetType();
+            Class<?> valueType = ClassUtils.primitiveToWrapper(sourceType);
+            if (!adapter.canConvert(valueType, targetType) && (Modifier.isFinal(valueType.getModifiers())
+                    || !adapter.canConvertSubtype(valueType, targetType))) {
+                problems.add("property " + mapping.getName() + " is unconvertible from " + sourceType.getName()
+                        + " to " + targetType.getName());
+            } else if (adapter.isLossy(valueType, targetType)) {
+                problems.add("property " + mapping.getName() + " may lose precision from " + sourceType.getName()
+                        + " to " + targetType.getName());
+            }
+        }
+        for (PropertyDescriptor setter : ReflectUtils.getBeanSetters(plan.getTargetType())) {
+            String name = setter.getName();
+            if (!mapped.contains(name) && !rules.isIgnored(name)) {
+                problems.add("property " + name + " is unmapped since " + plan.getSourceType().getName()
+                        + " has no readable property " + rules.sourceName(name));
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("invalid mapping of " + plan.getSourceType().getName() + " to "
+                    + plan.getTargetType().getName() + ":\n  " + String.join("\n  ", problems));
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.util.function.BiFunction;
+
+/**
+ * The metered counterparts of copier lookups and copiers, used when {@link ConversionMetrics} other than
+ * {@link ConversionMetrics#NONE} are set.
+ *
+ * @author Robin Wang
+ */
+final class Metering {
+
+    /**
+     * Private constructor.
+     */
+    private Metering() {
+    }
+
+    /**
+     * Get the copier of source class and target class from the given cache, recording the cache hit or miss and the
+     * time it took to create the copier.
+     *
+     * @param cache   the cache of copiers
+     * @param source  the source class
+     * @param target  the target class
+     * @param factory the factory to create the copier if absent
+     * @param metrics the metrics to record to
+     * @param <V>     the type of copier
+     *
+     * @return the copier of source class and target class
+     */
+    static <V> V get(ClassPairCache<V> cache, Class<?> source, Class<?> target,
+                     BiFunction<Class<?>, Class<?>, ? extends V> factory, ConversionMetrics metrics) {
+        V value = cache.getIfPresent(source, target);
+        if (value != null) {
+            metrics.copierCacheHit(source, target);
+            return value;
+        }
+
+        metrics.copierCacheMiss(source, target);
+        return cache.get(source, target, (s, t) -> {
+            long start = System.nanoTime();
+            V created = factory.apply(s, t);
+            metrics.copierCreated(s, t, System.nanoTime() - start);
+            return created;
+        });
+    }
+
+    /**
+     * Wrap the given copier so that every copy is recorded.
+     *
+     * @param source  the source class
+     * @param target  the target class
+     * @param copier  the copier to wrap
+     * @param metrics the metrics to record to
+     *
+     * @return the metered copier
+     */
+    static Copier copier(Class<?> source, Class<?> target, Copier copier, ConversionMetrics metrics) {
+        return (s, t) -> {
+            long start = System.nanoTime();
+            copier.copy(s, t);
+            metrics.converted(source, target, System.nanoTime() - start);
+        };
+    }
+
+    /**
+     * Wrap the given partial copier so that every copy is recorded like a conversion of its class pair.
+     *
+     * @param source  the source class
+     * @param target  the target class
+     * @param copier  the partial copier to wrap
+     * @param metrics the metrics to record to
+     *
+     * @return the metered partial copier
+     */
+    static PartialCopier partialCopier(Class<?> source, Class<?> target, PartialCopier copier,
+                                       ConversionMetrics metrics) {
+        return (s, t, changes) -> {
+            long start = System.nanoTime();
+            copier.copy(s, t, changes);
+            metrics.converted(source, target, System.nanoTime() - start);
+        };
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * The parallel conversion of a collection of source beans.
+ * <p>
+ * The sources are split into ranges, each converted by its own {@link BoundConverter} so that threads share nothing
+ * but the copier cache, which is read without locking. Every range writes into its own slots of the result, which
+ * keeps the order of sources. Collections smaller than {@link #THRESHOLD} are converted sequentially.
+ *
+ * @author Robin Wang
+ */
+final class ParallelConversion {
+
+    /**
+     * The minimum number of sources to convert in parallel.
+     */
+    static final int THRESHOLD = 1024;
+
+    /**
+     * The number of ranges per thread, so that threads finishing early can take over more work.
+     */
+    private static final int RANGES_PER_THREAD = 4;
+
+    /**
+     * Private constructor.
+     */
+    private ParallelConversion() {
+    }
+
+    /**
+     * Convert the given source beans in parallel.
+     *
+     * @param sources    the source beans
+     * @param converters the factory of conversions to the target type, one per range
+     * @param executor   the executor to run the conversion, or null for the common {@link ForkJoinPool}
+     * @param <T>        the type of target beans
+     *
+     * @return the list of target beans in the order of source beans
+     */
+    static <T> List<T> convert(Collection<?> sources, Supplier<BoundConverter<T>> converters, Executor executor) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        if (sources.size() < THRESHOLD) {
+            return converters.get().convertAll(sources);
+        }
+
+        Object[] input = sources.toArray();
+        Object[] output = new Object[input.length];
+        if (executor == null) {
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            int granularity = granularity(input.length, pool.getParallelism());
+            pool.invoke(new RangeTask<>(input, output, 0, input.length, granularity, converters));
+        } else {
+            int granularity = granularity(input.length, Runtime.getRuntime().availableProcessors());
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int from = 0; from < input.length; from += granularity) {
+                int to = Math.min(from + granularity, input.length);
+                int start = from;
+                futures.add(CompletableFuture.runAsync(() -> convert(input, output, start, to, converters.get()),
+                        executor));
+            }
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> result = (List<T>) new ArrayList<>(Arrays.asList(output));
+        return result;
+    }
+
+    private static int granularity(int size, int parallelism) {
+        return Math.max(THRESHOLD / 4, size / (Math.max(parallelism, 1) * RANGES_PER_THREAD) + 1);
+    }
+
+    private static void convert(Object[] input, Object[] output, int from, int to, BoundConverter<?> converter) {
+        for (int i = from; i < to; i++) {
+            output[i] = converter.apply(input[i]);
+        }
+    }
+
+    /**
+     * The task that converts a range of sources, splitting it in halves until it is small enough.
+     *
+     * @param <T> the type of target beans
+     */
+    private static final class RangeTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] input;
+
+        private final Object[] output;
+
+        private final int from;
+
+        private final int to;
+
+        private final int granularity;
+
+        private final transient Supplier<BoundConverter<T>> converters;
+
+        RangeTask(Object[] input, Object[] output, int from, int to, int granularity,
+                  Supplier<BoundConverter<T>> converters) {
+            this.input = input;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+            this.converters = converters;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= granularity) {
+                convert(input, output, from, to, converters.get());
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask<>(input, output, from, middle, granularity, converters),
+                    new RangeTask<>(input, output, middle, to, granularity, converters));
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.util.Collection;
+
+/**
+ * A partial copier copies the non-null property values of a source bean of a fixed type into a target bean of a fixed
+ * type, leaving the properties of the target bean without a value untouched, e.g. for partial updates.
+ *
+ * @author Robin Wang
+ */
+@FunctionalInterface
+interface PartialCopier {
+
+    /**
+     * Copy the non-null property values of the given source bean into the target bean. A property is not copied if
+     * the value of the source bean, or the value it is converted to, is null.
+     *
+     * @param source  the source bean
+     * @param target  the target bean
+     * @param changes the collection to add the names of the properties whose values have changed to, or null if they
+     *                are not needed
+     */
+    void copy(Object source, Object target, Collection<? super String> changes);
+
+}
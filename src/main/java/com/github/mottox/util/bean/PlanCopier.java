@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import com.github.mottox.util.bean.MappingPlan.PropertyMapping;
+
+/**
+ * A {@link Copier} that runs the steps of a {@link MappingPlan}, accessing properties through method handles.
+ *
+ * @author Robin Wang
+ */
+final class PlanCopier implements Copier {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Step[] steps;
+
+    /**
+     * Construct a new copier of the given plan.
+     *
+     * @param plan the mapping plan
+     */
+    PlanCopier(MappingPlan plan) {
+        List<PropertyMapping> mappings = plan.getMappings();
+        this.steps = new Step[mappings.size()];
+        for (int i = 0; i < steps.length; i++) {
+            PropertyMapping mapping = mappings.get(i);
+            steps[i] = new Step(mapping.getName(), getter(mapping.getGetter()), setter(mapping.getSetter()),
+                    mapping.getConverter());
+        }
+    }
+
+    @Override
+    public void copy(Object source, Object target) {
+        for (Step step : steps) {
+            step.copy(source, target);
+        }
+    }
+
+    /**
+     * Get a method handle of type <code>(Object)Object</code> that invokes the given getter.
+     *
+     * @param getter the getter
+     *
+     * @return the method handle of getter
+     */
+    static MethodHandle getter(Method getter) {
+        return unreflect(getter).asType(GETTER_TYPE);
+    }
+
+    /**
+     * Get a method handle of type <code>(Object,Object)void</code> that invokes the given setter.
+     * Values assigned to primitive properties are converted by {@link Primitives}.
+     *
+     * @param setter the setter
+     *
+     * @return the method handle of setter
+     */
+    static MethodHandle setter(Method setter) {
+        MethodHandle handle = unreflect(setter);
+        Class<?> type = setter.getParameterTypes()[0];
+        if (type.isPrimitive()) {
+            handle = MethodHandles.filterArguments(handle, 1, Primitives.unboxer(type));
+        }
+        return handle.asType(SETTER_TYPE);
+    }
+
+    /**
+     * Get the method handle of the given method, suppressing access checks if the declaring class is not accessible.
+     *
+     * @param method the method
+     *
+     * @return the method handle
+     */
+    static MethodHandle unreflect(Method method) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            try {
+                return lookup.unreflect(method);
+            } catch (IllegalAccessException e) {
+                method.setAccessible(true);
+                return lookup.unreflect(method);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("fail to access method " + method, e);
+        }
+    }
+
+    /**
+     * A step that copies one property.
+     */
+    private static final class Step {
+
+        private final String name;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private final TypeConverter<Object, Object> converter;
+
+        Step(String name, MethodHandle getter, MethodHandle setter, TypeConverter<Object, Object> converter) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+        }
+
+        void copy(Object source, Object target) {
+            try {
+                Object value = (Object) getter.invokeExact(source);
+                setter.invokeExact(target, value == null ? null : converter.convert(value));
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException("fail to copy property " + name, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Conversions of values to primitive types, following the <code>unbox_or_zero</code> semantics of the code generated
+ * by cglib {@link net.sf.cglib.beans.BeanCopier}: null becomes zero or false, any {@link Number} converts to any
+ * numeric primitive type.
+ *
+ * @author Robin Wang
+ */
+final class Primitives {
+
+    /**
+     * Private constructor.
+     */
+    private Primitives() {
+    }
+
+    /**
+     * Get a method handle of type <code>(Object)p</code> that converts a value to the given primitive type.
+     *
+     * @param type the primitive type
+     *
+     * @return the method handle converting a value to the given primitive type
+     */
+    static MethodHandle unboxer(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            throw new IllegalArgumentException(type + " is not a primitive type");
+        }
+        String name = "to" + Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+        try {
+            return MethodHandles.lookup().findStatic(Primitives.class, name, MethodType.methodType(type, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Convert a value to the wrapper type of the given primitive type.
+     *
+     * @param value the value
+     * @param type  the primitive type
+     *
+     * @return the converted value, which is an instance of the wrapper type
+     */
+    static Object wrap(Object value, Class<?> type) {
+        if (type == boolean.class) {
+            return toBoolean(value);
+        } else if (type == char.class) {
+            return toChar(value);
+        } else if (type == byte.class) {
+            return toByte(value);
+        } else if (type == short.class) {
+            return toShort(value);
+        } else if (type == int.class) {
+            return toInt(value);
+        } else if (type == long.class) {
+            return toLong(value);
+        } else if (type == float.class) {
+            return toFloat(value);
+        } else if (type == double.class) {
+            return toDouble(value);
+        }
+        throw new IllegalArgumentException(type + " is not a primitive type");
+    }
+
+    static boolean toBoolean(Object value) {
+        return value != null && (Boolean) value;
+    }
+
+    static char toChar(Object value) {
+        return value == null ? 0 : (Character) value;
+    }
+
+    static byte toByte(Object value) {
+        return value == null ? 0 : ((Number) value).byteValue();
+    }
+
+    static short toShort(Object value) {
+        return value == null ? 0 : ((Number) value).shortValue();
+    }
+
+    static int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    static float toFloat(Object value) {
+        return value == null ? 0F : ((Number) value).floatValue();
+    }
+
+    static double toDouble(Object value) {
+        return value == null ? 0D : ((Number) value).doubleValue();
+    }
+
+}
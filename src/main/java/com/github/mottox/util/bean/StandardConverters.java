@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.github.mottox.util.bean.BeanConverterImpl.ConverterAdapter.ResolvedTypeConverter;
+
+/**
+ * The standard {@link TypeConverter}s registered as a unit by
+ * {@link BeanConverterBuilder#registerStandardConverters()}, which convert strings to and from numbers, booleans,
+ * enums and the types of <code>java.time</code>, widen boxed numbers, convert {@link BigDecimal} to and from
+ * {@link Double}, and {@link Date} to and from {@link Instant}, {@link LocalDateTime}, {@link LocalDate} and epoch
+ * milliseconds.
+ * <p>
+ * Unlike the registered converters, which are scanned in order, the standard converters are looked up by the exact
+ * value type, or its nearest superclass, and target type, and only when no registered converter matches. A primitive
+ * target type is looked up by its wrapper type, since a {@link TypeConverter} converts boxed values, so primitive
+ * properties are boxed and unboxed like by any other converter. Enums are converted by name through a lookup table per
+ * enum type, and strings are converted to booleans only if they are <code>true</code> or <code>false</code>, ignoring
+ * case. An unknown name, a malformed boolean, number or date throws an {@link IllegalArgumentException} or the
+ * exception of its parse method rather than being converted to null or false. Dates and times are formatted and parsed
+ * by the ISO formatters of {@link DateTimeFormatter}, and converted between {@link Date} and local dates and times in
+ * a fixed zone.
+ *
+ * @author Robin Wang
+ */
+final class StandardConverters {
+
+    /**
+     * The converters by source type and target type.
+     */
+    private final Map<Class<?>, Map<Class<?>, ResolvedTypeConverter>> converters = new HashMap<>();
+
+    /**
+     * The converters which may lose precision, reported by a strict {@link BeanConverter}.
+     */
+    private final Set<ResolvedTypeConverter> lossy = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The converters of names to the constants of an enum type.
+     */
+    private final ClassValue<ResolvedTypeConverter> enumConverters = new ClassValue<ResolvedTypeConverter>() {
+        @Override
+        protected ResolvedTypeConverter computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            Map<String, Object> names = new HashMap<>(constants.length * 4 / 3 + 1);
+            for (Object constant : constants) {
+                names.put(((Enum<?>) constant).name(), constant);
+            }
+            return resolved(String.class, type, value -> {
+                Object constant = names.get(value);
+                if (constant == null) {
+                    throw new IllegalArgumentException("No enum constant " + type.getName() + "." + value);
+                }
+                return constant;
+            });
+        }
+    };
+
+    /**
+     * Construct the standard converters.
+     *
+     * @param zone the zone of local dates and times converted to and from {@link Date}
+     */
+    StandardConverters(ZoneId zone) {
+        Objects.requireNonNull(zone, "zone must not be null");
+
+        register(String.class, Integer.class, Integer::valueOf);
+        register(String.class, Long.class, Long::valueOf);
+        register(String.class, Short.class, Short::valueOf);
+        register(String.class, Byte.class, Byte::valueOf);
+        register(String.class, Double.class, Double::valueOf);
+        register(String.class, Float.class, Float::valueOf);
+        register(String.class, Boolean.class, StandardConverters::parseBoolean);
+        register(String.class, BigDecimal.class, BigDecimal::new);
+        register(String.class, BigInteger.class, BigInteger::new);
+        register(Integer.class, String.class, String::valueOf);
+        register(Long.class, String.class, String::valueOf);
+        register(Short.class, String.class, String::valueOf);
+        register(Byte.class, String.class, String::valueOf);
+        register(Double.class, String.class, String::valueOf);
+        register(Float.class, String.class, String::valueOf);
+        register(Boolean.class, String.class, String::valueOf);
+        register(Character.class, String.class, String::valueOf);
+        register(BigDecimal.class, String.class, BigDecimal::toPlainString);
+        register(BigInteger.class, String.class, BigInteger::toString);
+        register(Enum.class, String.class, Enum::name);
+
+        register(Byte.class, Short.class, value -> (short) value.byteValue());
+        register(Byte.class, Integer.class, value -> (int) value.byteValue());
+        register(Byte.class, Long.class, value -> (long) value.byteValue());
+        register(Short.class, Integer.class, value -> (int) value.shortValue());
+        register(Short.class, Long.class, value -> (long) value.shortValue());
+        register(Integer.class, Long.class, value -> (long) value.intValue());
+        register(Integer.class, Double.class, value -> (double) value.intValue());
+        registerLossy(Long.class, Double.class, value -> (double) value.longValue());
+        register(Float.class, Double.class, value -> (double) value.floatValue());
+        register(Integer.class, BigDecimal.class, value -> BigDecimal.valueOf(value.intValue()));
+        register(Long.class, BigDecimal.class, BigDecimal::valueOf);
+        register(Double.class, BigDecimal.class, BigDecimal::valueOf);
+        registerLossy(BigDecimal.class, Double.class, BigDecimal::doubleValue);
+        register(Integer.class, BigInteger.class, value -> BigInteger.valueOf(value.intValue()));
+        register(Long.class, BigInteger.class, BigInteger::valueOf);
+        register(BigInteger.class, BigDecimal.class, BigDecimal::new);
+
+        register(String.class, LocalDate.class, value -> LocalDate.parse(value, DateTimeFormatter.ISO_LOCAL_DATE));
+        register(String.class, LocalTime.class, value -> LocalTime.parse(value, DateTimeFormatter.ISO_LOCAL_TIME));
+        register(String.class, LocalDateTime.class,
+                value -> LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        register(String.class, Instant.class, value -> DateTimeFormatter.ISO_INSTANT.parse(value, Instant::from));
+        register(LocalDate.class, String.class, DateTimeFormatter.ISO_LOCAL_DATE::format);
+        register(LocalTime.class, String.class, DateTimeFormatter.ISO_LOCAL_TIME::format);
+        register(LocalDateTime.class, String.class, DateTimeFormatter.ISO_LOCAL_DATE_TIME::format);
+        register(Instant.class, String.class, DateTimeFormatter.ISO_INSTANT::format);
+
+        // Date#getTime rather than Date#toInstant, which java.sql.Date does not support.
+        register(Date.class, Instant.class, value -> Instant.ofEpochMilli(value.getTime()));
+        register(Date.class, LocalDateTime.class,
+                value -> LocalDateTime.ofInstant(Instant.ofEpochMilli(value.getTime()), zone));
+        register(Date.class, LocalDate.class,
+                value -> LocalDateTime.ofInstant(Instant.ofEpochMilli(value.getTime()), zone).toLocalDate());
+        register(Date.class, Long.class, Date::getTime);
+        register(Instant.class, Date.class, Date::from);
+        register(LocalDateTime.class, Date.class, value -> Date.from(value.atZone(zone).toInstant()));
+        register(LocalDate.class, Date.class, value -> Date.from(value.atStartOfDay(zone).toInstant()));
+        register(Long.class, Date.class, Date::new);
+        register(Instant.class, LocalDateTime.class, value -> LocalDateTime.ofInstant(value, zone));
+        register(LocalDateTime.class, Instant.class, value -> value.atZone(zone).toInstant());
+        register(Instant.class, Long.class, Instant::toEpochMilli);
+        register(Long.class, Instant.class, Instant::ofEpochMilli);
+    }
+
+    /**
+     * Find the standard converter of values of the given type to the given target type.
+     *
+     * @param sourceType the type of value
+     * @param targetType the target type
+     *
+     * @return the converter, or null if no standard converter matches
+     */
+    ResolvedTypeConverter find(Class<?> sourceType, Class<?> targetType) {
+        Class<?> target = targetType.isPrimitive() ? ClassUtils.primitiveToWrapper(targetType) : targetType;
+        if (sourceType == String.class && target.isEnum()) {
+            return enumConverters.get(target);
+        }
+        // Look up the superclasses too, e.g. for subclasses of Date and enum constants with bodies.
+        for (Class<?> type = sourceType; type != null; type = type.getSuperclass()) {
+            Map<Class<?>, ResolvedTypeConverter> targets = converters.get(type);
+            ResolvedTypeConverter converter = targets != null ? targets.get(target) : null;
+            if (converter != null) {
+                return converter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determine if values of some subtype of the given type can be converted to the given target type, which depends
+     * on the types of values at runtime.
+     *
+     * @param sourceType the declared type of values
+     * @param targetType the target type
+     *
+     * @return true if a standard converter of a subtype matches
+     */
+    boolean hasSubtypeConverter(Class<?> sourceType, Class<?> targetType) {
+        Class<?> target = targetType.isPrimitive() ? ClassUtils.primitiveToWrapper(targetType) : targetType;
+        if (target.isEnum() && sourceType.isAssignableFrom(String.class)) {
+            return true;
+        }
+        for (Map.Entry<Class<?>, Map<Class<?>, ResolvedTypeConverter>> entry : converters.entrySet()) {
+            if (sourceType.isAssignableFrom(entry.getKey()) && entry.getValue().containsKey(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine if the given converter may lose precision, e.g. {@link BigDecimal} to {@link Double}.
+     *
+     * @param converter the converter found by {@link #find(Class, Class)}
+     *
+     * @return true if the converter is a lossy standard converter
+     */
+    boolean isLossy(TypeConverter<?, ?> converter) {
+        return lossy.contains(converter);
+    }
+
+    /**
+     * Parse a boolean strictly, unlike {@link Boolean#valueOf(String)}, which converts any other string to false.
+     *
+     * @param value the string to parse
+     *
+     * @return the boolean
+     *
+     * @throws IllegalArgumentException if the string is neither <code>true</code> nor <code>false</code>, ignoring
+     *                                  case
+     */
+    private static Boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean: \"" + value + "\"");
+    }
+
+    private <S, T> void registerLossy(Class<S> sourceType, Class<T> targetType, TypeConverter<S, T> converter) {
+        register(sourceType, targetType, converter);
+        lossy.add(converters.get(sourceType).get(targetType));
+    }
+
+    private <S, T> void register(Class<S> sourceType, Class<T> targetType, TypeConverter<S, T> converter) {
+        converters.computeIfAbsent(sourceType, key -> new HashMap<>())
+                .put(targetType, resolved(sourceType, targetType, converter));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, T> ResolvedTypeConverter resolved(Class<S> sourceType, Class<T> targetType,
+                                                         TypeConverter<S, ?> converter) {
+        return new ResolvedTypeConverter<>((TypeConverter<S, T>) converter, sourceType, targetType);
+    }
+}
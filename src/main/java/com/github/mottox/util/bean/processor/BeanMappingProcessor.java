@@ -0,0 +1,693 @@
+/*
+ * Copyright (c) 2017 Robin Wang
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.mottox.util.bean.processor;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import com.github.mottox.util.bean.BeanConverter;
+import com.github.mottox.util.bean.BeanMapping;
+import com.github.mottox.util.bean.BeanMappings;
+import com.github.mottox.util.bean.TypeConverter;
+
+/**
+ * The annotation processor generating the implementations of interfaces annotated by {@link BeanMapping}.
+ * <p>
+ * The generated code follows the rules of {@link com.github.mottox.util.bean.BeanConverterImpl}: a property of the
+ * target type is copied from the property of the source type with the same name. The value is assigned directly if
+ * the target property is assignable from the source property, with autoboxing and null converted to zero for
+ * primitive properties. Otherwise the first converter whose source type is assignable from the source property and
+ * whose target type is assignable to the target property is called, and the target property is set to null if there
+ * is no such converter, which is reported as a warning. Unlike {@link com.github.mottox.util.bean.BeanConverterImpl},
+ * converters are resolved by the declared types of the properties rather than the types of values at runtime.
+ * <p>
+ * The generated {@link BeanConverter#copyNonNull(Object, Object, java.util.Collection)} checks every value for null
+ * inline, before and after its conversion, and compares it with the current value of the target property only if the
+ * changed properties are requested.
+ * <p>
+ * The generated {@link BeanConverter#toMap(Object)} reads the properties of any source type of the mappings, since
+ * the generated {@link BeanConverter#copyProperties(Object, Object)} only copies between the declared types. The
+ * generated {@link BeanConverter#clone(Object)} clones the beans of the instantiable types of the mappings, and
+ * {@link BeanConverter#deepClone(Object)} throws {@link UnsupportedOperationException}, so that nothing is generated
+ * at runtime.
+ *
+ * @author Robin Wang
+ */
+@SupportedAnnotationTypes({"com.github.mottox.util.bean.BeanMapping", "com.github.mottox.util.bean.BeanMappings"})
+public class BeanMappingProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<Element> mappers = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            mappers.addAll(roundEnv.getElementsAnnotatedWith(annotation));
+        }
+        for (Element mapper : mappers) {
+            if (mapper.getKind() != ElementKind.INTERFACE) {
+                error(mapper, "@BeanMapping is only applicable to interfaces");
+                continue;
+            }
+            try {
+                generate((TypeElement) mapper);
+            } catch (IOException e) {
+                error(mapper, "fail to generate the implementation: " + e);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement mapper) throws IOException {
+        for (ExecutableElement method : ElementFilter.methodsIn(mapper.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+                error(method, "an interface annotated by @BeanMapping must not declare abstract methods");
+                return;
+            }
+        }
+
+        Map<String, Converter> converters = new LinkedHashMap<>();
+        List<Mapping> mappings = new ArrayList<>();
+        for (AnnotationMirror annotation : mappingAnnotations(mapper)) {
+            Mapping mapping = new Mapping(asTypeElement(value(annotation, "source")),
+                    asTypeElement(value(annotation, "target")));
+            for (AnnotationValue value : values(annotation, "converters")) {
+                TypeElement type = asTypeElement((TypeMirror) value.getValue());
+                Converter converter = converters.get(type.getQualifiedName().toString());
+                if (converter == null) {
+                    converter = resolveConverter(mapper, type, "converter" + converters.size());
+                    if (converter == null) {
+                        return;
+                    }
+                    converters.put(type.getQualifiedName().toString(), converter);
+                }
+                mapping.converters.add(converter);
+            }
+            mappings.add(mapping);
+        }
+
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(mapper);
+        String packageName = packageElement.getQualifiedName().toString();
+        String simpleName = mapper.getQualifiedName().toString()
+                .substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('.', '_') + "Impl";
+        String mapperName = mapper.getQualifiedName().toString();
+        boolean isBeanConverter = processingEnv.getTypeUtils().isAssignable(mapper.asType(),
+                typeOf(BeanConverter.class));
+
+        StringBuilder code = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("/**\n")
+                .append(" * The {@link com.github.mottox.util.bean.BeanConverter} of {@link ").append(mapperName)
+                .append("}, generated by {@link ").append(BeanMappingProcessor.class.getName()).append("}.\n")
+                .append(" */\n")
+                .append("public class ").append(simpleName).append(" implements ").append(mapperName)
+                .append(isBeanConverter ? "" : ", " + BeanConverter.class.getName()).append(" {\n");
+        for (Converter converter : converters.values()) {
+            code.append("\n    private final ").append(converter.type.getQualifiedName()).append(' ')
+                    .append(converter.field).append(" = new ").append(converter.type.getQualifiedName())
+                    .append("();\n");
+        }
+        appendDispatch(code, mappings, "copyProperties", "", "copy");
+        appendDispatch(code, mappings, "copyNonNull", ", java.util.Collection<? super String> changedProperties",
+                "copyNonNull");
+        appendConvert(code, mappings);
+        appendToMap(code, mappings);
+        appendClone(code, mappings);
+        appendCacheMethods(code);
+        for (int i = 0; i < mappings.size(); i++) {
+            appendCopy(code, mapper, mappings.get(i), "copy" + i);
+            appendCopyNonNull(code, mappings.get(i), "copyNonNull" + i);
+        }
+        code.append("\n}\n");
+
+        String name = packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(name, mapper).openWriter()) {
+            writer.write(code.toString());
+        }
+    }
+
+    /**
+     * Append the method that calls the copy method of the mapping of the types of the given beans.
+     *
+     * @param code       the code to append to
+     * @param mappings   the mappings
+     * @param method     the name of the method
+     * @param parameters the parameters of the method after the source bean and the target bean
+     * @param copy       the name prefix of the copy methods of mappings
+     */
+    private void appendDispatch(StringBuilder code, List<Mapping> mappings, String method, String parameters,
+                                String copy) {
+        String arguments = parameters.isEmpty() ? "" : ", " + parameters.substring(parameters.lastIndexOf(' ') + 1);
+        code.append("\n    @Override\n")
+                .append("    public void ").append(method).append("(Object source, Object target").append(parameters)
+                .append(") {\n")
+                .append("        java.util.Objects.requireNonNull(source, \"source must not be null\");\n")
+                .append("        java.util.Objects.requireNonNull(target, \"target must not be null\");\n");
+        for (int i = 0; i < mappings.size(); i++) {
+            Mapping mapping = mappings.get(i);
+            String source = mapping.source.getQualifiedName().toString();
+            String target = mapping.target.getQualifiedName().toString();
+            code.append("        if (source instanceof ").append(source).append(" && target instanceof ")
+                    .append(target).append(") {\n")
+                    .append("            ").append(copy).append(i).append("((").append(source)
+                    .append(") source, (").append(target).append(") target").append(arguments).append(");\n")
+                    .append("            return;\n")
+                    .append("        }\n");
+        }
+        code.append("        throw new IllegalArgumentException(\"no mapping of \" + source.getClass().getName()\n")
+                .append("                + \" to \" + target.getClass().getName());\n")
+                .append("    }\n");
+    }
+
+    private void appendConvert(StringBuilder code, List<Mapping> mappings) {
+        code.append("\n    @Override\n")
+                .append("    public <T> T convert(Object source, Class<T> clazz) {\n")
+                .append("        java.util.Objects.requireNonNull(source, \"source must not be null\");\n");
+        for (int i = 0; i < mappings.size(); i++) {
+            Mapping mapping = mappings.get(i);
+            if (!isInstantiable(mapping.target)) {
+                continue;
+            }
+            String source = mapping.source.getQualifiedName().toString();
+            String target = mapping.target.getQualifiedName().toString();
+            code.append("        if (clazz == ").append(target).append(".class && source instanceof ")
+                    .append(source).append(") {\n")
+                    .append("            ").append(target).append(" target = new ").append(target).append("();\n")
+                    .append("            copy").append(i).append("((").append(source).append(") source, target);\n")
+                    .append("            return clazz.cast(target);\n")
+                    .append("        }\n");
+        }
+        code.append("        throw new IllegalArgumentException(\"no mapping of \" + source.getClass().getName()\n")
+                .append("                + \" to \" + clazz.getName());\n")
+                .append("    }\n");
+    }
+
+    /**
+     * Append the method that converts a bean of any source type of the mappings to a map of its readable properties,
+     * in the order of their names like {@link java.beans.Introspector}.
+     */
+    private void appendToMap(StringBuilder code, List<Mapping> mappings) {
+        code.append("\n    @Override\n")
+                .append("    public java.util.Map<String, Object> toMap(Object source) {\n")
+                .append("        java.util.Objects.requireNonNull(source, \"source must not be null\");\n");
+        Set<String> sources = new HashSet<>();
+        for (Mapping mapping : mappings) {
+            String source = mapping.source.getQualifiedName().toString();
+            if (!sources.add(source)) {
+                continue;
+            }
+            Map<String, ExecutableElement> getters = new TreeMap<>(getters(mapping.source));
+            getters.remove("class");
+            code.append("        if (source instanceof ").append(source).append(") {\n")
+                    .append("            ").append(source).append(" bean = (").append(source).append(") source;\n")
+                    .append("            java.util.Map<String, Object> map = new java.util.LinkedHashMap<>(")
+                    .append((int) (getters.size() / .75F) + 1).append(");\n");
+            for (Map.Entry<String, ExecutableElement> entry : getters.entrySet()) {
+                code.append("            map.put(\"").append(entry.getKey()).append("\", bean.")
+                        .append(entry.getValue().getSimpleName()).append("());\n");
+            }
+            code.append("            return map;\n")
+                    .append("        }\n");
+        }
+        code.append("        throw new IllegalArgumentException(\"no mapping of \" + source.getClass().getName()\n")
+                .append("                + \" to \" + java.util.Map.class.getName());\n")
+                .append("    }\n");
+    }
+
+    /**
+     * Append the methods that clone beans. A bean of any instantiable type of the mappings is cloned shallowly by
+     * assigning its properties directly, and deep clones are not supported, so no class is generated at runtime.
+     */
+    private void appendClone(StringBuilder code, List<Mapping> mappings) {
+        code.append("\n    @Override\n")
+                .append("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("    public <T> T clone(T source) {\n")
+                .append("        java.util.Objects.requireNonNull(source, \"source must not be null\");\n");
+        Set<String> types = new HashSet<>();
+        for (Mapping mapping : mappings) {
+            for (TypeElement type : new TypeElement[]{mapping.source, mapping.target}) {
+                String name = type.getQualifiedName().toString();
+                if (!isInstantiable(type) || !types.add(name)) {
+                    continue;
+                }
+                code.append("        if (source.getClass() == ").append(name).append(".class) {\n")
+                        .append("            ").append(name).append(" bean = (").append(name).append(") source;\n")
+                        .append("            ").append(name).append(" clone = new ").append(name).append("();\n");
+                Map<String, ExecutableElement> getters = getters(type);
+                for (Map.Entry<String, ExecutableElement> entry : setters(type).entrySet()) {
+                    ExecutableElement getter = getters.get(entry.getKey());
+                    if (getter == null || !isAssignable(erasure(memberType(type, getter).getReturnType()),
+                            erasure(memberType(type, entry.getValue()).getParameterTypes().get(0)))) {
+                        continue;
+                    }
+                    code.append("            clone.").append(entry.getValue().getSimpleName()).append("(bean.")
+                            .append(getter.getSimpleName()).append("());\n");
+                }
+                code.append("            return (T) clone;\n")
+                        .append("        }\n");
+            }
+        }
+        code.append("        throw new IllegalArgumentException(\"no mapping of \" + source.getClass().getName());\n")
+                .append("    }\n")
+                .append("\n    @Override\n")
+                .append("    public <T> T deepClone(T source) {\n")
+                .append("        throw new UnsupportedOperationException(\"deep clones are not generated\");\n")
+                .append("    }\n");
+    }
+
+    private void appendCacheMethods(StringBuilder code) {
+        code.append("\n    @Override\n")
+                .append("    public void prepare(Class<?> source, Class<?> target) {\n")
+                .append("        // The copy code is generated at compile time, there is nothing to prepare.\n")
+                .append("    }\n")
+                .append("\n    @Override\n")
+                .append("    public void evict(Class<?> clazz) {\n")
+                .append("    }\n")
+                .append("\n    @Override\n")
+                .append("    public void evict(ClassLoader classLoader) {\n")
+                .append("    }\n")
+                .append("\n    @Override\n")
+                .append("    public void clearCache() {\n")
+                .append("    }\n");
+    }
+
+    private void appendCopy(StringBuilder code, TypeElement mapper, Mapping mapping, String name) {
+        code.append("\n    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("    private void ").append(name).append('(').append(mapping.source.getQualifiedName())
+                .append(" source, ").append(mapping.target.getQualifiedName()).append(" target) {\n");
+
+        Map<String, ExecutableElement> getters = getters(mapping.source);
+        for (Map.Entry<String, ExecutableElement> entry : setters(mapping.target).entrySet()) {
+            ExecutableElement getter = getters.get(entry.getKey());
+            if (getter == null) {
+                continue;
+            }
+            ExecutableElement setter = entry.getValue();
+            TypeMirror sourceType = erasure(memberType(mapping.source, getter).getReturnType());
+            TypeMirror targetType = erasure(memberType(mapping.target, setter).getParameterTypes().get(0));
+
+            code.append("        {\n")
+                    .append("            ").append(sourceType).append(" value = source.")
+                    .append(getter.getSimpleName()).append("();\n");
+            String value = "value";
+            if (!isAssignable(boxed(sourceType), targetType)) {
+                Converter converter = resolve(mapping.converters, boxed(sourceType), targetType);
+                if (converter == null) {
+                    warning(mapper, "property " + entry.getKey() + " of " + mapping.target.getQualifiedName()
+                            + " is set to null since no converter matches " + sourceType + " to " + targetType);
+                    value = null;
+                } else {
+                    code.append("            ").append(converter.targetType).append(" converted = ");
+                    if (sourceType.getKind().isPrimitive()) {
+                        code.append(converter.field).append(".convert(value);\n");
+                    } else {
+                        code.append("value == null ? null : ").append(converter.field).append(".convert(value);\n");
+                    }
+                    value = "converted";
+                    sourceType = converter.targetType;
+                }
+            }
+            code.append("            target.").append(setter.getSimpleName()).append('(')
+                    .append(assignment(value, sourceType, targetType)).append(");\n")
+                    .append("        }\n");
+        }
+        code.append("    }\n");
+    }
+
+    /**
+     * Append the method that copies the non-null properties of a mapping. Properties without a matching converter
+     * would be set to null, so they are never copied.
+     */
+    private void appendCopyNonNull(StringBuilder code, Mapping mapping, String name) {
+        code.append("\n    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("    private void ").append(name).append('(').append(mapping.source.getQualifiedName())
+                .append(" source, ").append(mapping.target.getQualifiedName())
+                .append(" target, java.util.Collection<? super String> changes) {\n");
+
+        Map<String, ExecutableElement> getters = getters(mapping.source);
+        Map<String, ExecutableElement> currentGetters = getters(mapping.target);
+        for (Map.Entry<String, ExecutableElement> entry : setters(mapping.target).entrySet()) {
+            ExecutableElement getter = getters.get(entry.getKey());
+            if (getter == null) {
+                continue;
+            }
+            ExecutableElement setter = entry.getValue();
+            TypeMirror sourceType = erasure(memberType(mapping.source, getter).getReturnType());
+            TypeMirror targetType = erasure(memberType(mapping.target, setter).getParameterTypes().get(0));
+            Converter converter = null;
+            if (!isAssignable(boxed(sourceType), targetType)) {
+                converter = resolve(mapping.converters, boxed(sourceType), targetType);
+                if (converter == null) {
+                    continue;
+                }
+            }
+
+            code.append("        {\n")
+                    .append("            ").append(sourceType).append(" value = source.")
+                    .append(getter.getSimpleName()).append("();\n");
+            String indent = "            ";
+            int depth = 0;
+            if (!sourceType.getKind().isPrimitive()) {
+                code.append(indent).append("if (value != null) {\n");
+                indent += "    ";
+                depth++;
+            }
+            String value = "value";
+            if (converter != null) {
+                code.append(indent).append(converter.targetType).append(" converted = ").append(converter.field)
+                        .append(".convert(value);\n")
+                        .append(indent).append("if (converted != null) {\n");
+                indent += "    ";
+                depth++;
+                value = "converted";
+            }
+            String set = "target." + setter.getSimpleName() + "(assigned);\n";
+            String change = "changes.add(\"" + entry.getKey() + "\");\n";
+            code.append(indent).append(targetType).append(" assigned = ").append(value).append(";\n");
+            ExecutableElement current = currentGetters.get(entry.getKey());
+            if (current == null) {
+                // The current value is not readable, so the property is always changed.
+                code.append(indent).append("if (changes != null) {\n")
+                        .append(indent).append("    ").append(change)
+                        .append(indent).append("}\n")
+                        .append(indent).append(set);
+            } else {
+                code.append(indent).append("if (changes == null) {\n")
+                        .append(indent).append("    ").append(set)
+                        .append(indent).append("} else if (!java.util.Objects.equals(target.")
+                        .append(current.getSimpleName()).append("(), assigned)) {\n")
+                        .append(indent).append("    ").append(change)
+                        .append(indent).append("    ").append(set)
+                        .append(indent).append("}\n");
+            }
+            while (depth-- > 0) {
+                indent = indent.substring(4);
+                code.append(indent).append("}\n");
+            }
+            code.append("        }\n");
+        }
+        code.append("    }\n");
+    }
+
+    /**
+     * Get the expression assigning the given value to a property of the given type, converting null to zero for
+     * primitive properties.
+     */
+    private String assignment(String value, TypeMirror valueType, TypeMirror targetType) {
+        if (!targetType.getKind().isPrimitive()) {
+            return value == null ? "(" + targetType + ") null" : value;
+        }
+        String zero = zero(targetType.getKind());
+        if (value == null) {
+            return zero;
+        }
+        return valueType.getKind().isPrimitive() ? value : value + " == null ? " + zero + " : " + value;
+    }
+
+    private static String zero(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "false";
+            case LONG:
+                return "0L";
+            case FLOAT:
+                return "0F";
+            case DOUBLE:
+                return "0D";
+            case INT:
+                return "0";
+            default:
+                return "(" + kind.name().toLowerCase() + ") 0";
+        }
+    }
+
+    /**
+     * Resolve the converter of a property like {@link com.github.mottox.util.bean.BeanConverterImpl}: converters are
+     * grouped by source type in the order the source types are first declared.
+     */
+    private Converter resolve(List<Converter> converters, TypeMirror sourceType, TypeMirror targetType) {
+        Map<String, List<Converter>> groups = new LinkedHashMap<>();
+        for (Converter converter : converters) {
+            groups.computeIfAbsent(converter.sourceType.toString(), key -> new ArrayList<>()).add(converter);
+        }
+        for (List<Converter> group : groups.values()) {
+            if (isAssignable(sourceType, group.get(0).sourceType)) {
+                for (Converter converter : group) {
+                    if (isAssignable(converter.targetType, targetType)) {
+                        return converter;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private Converter resolveConverter(TypeElement mapper, TypeElement type, String field) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || !isInstantiable(type)) {
+            error(mapper, "converter " + type.getQualifiedName() + " must have a public no-arg constructor");
+            return null;
+        }
+        List<TypeMirror> pending = new ArrayList<>();
+        pending.add(type.asType());
+        TypeMirror converterType = erasure(typeOf(TypeConverter.class));
+        while (!pending.isEmpty()) {
+            TypeMirror candidate = pending.remove(0);
+            if (processingEnv.getTypeUtils().isSameType(erasure(candidate), converterType)) {
+                List<? extends TypeMirror> arguments = ((DeclaredType) candidate).getTypeArguments();
+                if (arguments.size() != 2 || arguments.stream().anyMatch(a -> a.getKind() != TypeKind.DECLARED
+                        && a.getKind() != TypeKind.ARRAY)) {
+                    break;
+                }
+                return new Converter(type, erasure(arguments.get(0)), erasure(arguments.get(1)), field);
+            }
+            pending.addAll(processingEnv.getTypeUtils().directSupertypes(candidate));
+        }
+        error(mapper, "converter " + type.getQualifiedName() + " must implement TypeConverter with concrete types");
+        return null;
+    }
+
+    /**
+     * Get the readable properties of the given type like {@link java.beans.Introspector}.
+     */
+    private Map<String, ExecutableElement> getters(TypeElement type) {
+        Map<String, ExecutableElement> getters = new LinkedHashMap<>();
+        for (ExecutableElement method : accessors(type)) {
+            String name = method.getSimpleName().toString();
+            if (!method.getParameters().isEmpty()) {
+                continue;
+            }
+            if (name.startsWith("get") && name.length() > 3 && method.getReturnType().getKind() != TypeKind.VOID) {
+                getters.putIfAbsent(Introspector.decapitalize(name.substring(3)), method);
+            } else if (name.startsWith("is") && name.length() > 2
+                    && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+                // A boolean property is read by its is-method even if there is a get-method.
+                getters.put(Introspector.decapitalize(name.substring(2)), method);
+            }
+        }
+        return getters;
+    }
+
+    /**
+     * Get the writable properties of the given type like {@link java.beans.Introspector}, preferring the setter of
+     * the type of the getter if a setter is overloaded.
+     */
+    private Map<String, ExecutableElement> setters(TypeElement type) {
+        Map<String, ExecutableElement> getters = getters(type);
+        Map<String, ExecutableElement> setters = new LinkedHashMap<>();
+        for (ExecutableElement method : accessors(type)) {
+            String name = method.getSimpleName().toString();
+            if (name.startsWith("set") && name.length() > 3 && method.getParameters().size() == 1
+                    && method.getReturnType().getKind() == TypeKind.VOID) {
+                String property = Introspector.decapitalize(name.substring(3));
+                ExecutableElement getter = getters.get(property);
+                if (!setters.containsKey(property) || getter != null && processingEnv.getTypeUtils().isSameType(
+                        getter.getReturnType(), method.getParameters().get(0).asType())) {
+                    setters.put(property, method);
+                }
+            }
+        }
+        return setters;
+    }
+
+    private List<ExecutableElement> accessors(TypeElement type) {
+        List<ExecutableElement> accessors = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC)) {
+                accessors.add(method);
+            }
+        }
+        return accessors;
+    }
+
+    private boolean isInstantiable(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT) || type.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<AnnotationMirror> mappingAnnotations(TypeElement mapper) {
+        TypeMirror mappingType = typeOf(BeanMapping.class);
+        TypeMirror mappingsType = typeOf(BeanMappings.class);
+        List<AnnotationMirror> mappings = new ArrayList<>();
+        for (AnnotationMirror annotation : mapper.getAnnotationMirrors()) {
+            TypeMirror type = annotation.getAnnotationType();
+            if (processingEnv.getTypeUtils().isSameType(type, mappingType)) {
+                mappings.add(annotation);
+            } else if (processingEnv.getTypeUtils().isSameType(type, mappingsType)) {
+                for (AnnotationValue value : values(annotation, "value")) {
+                    mappings.add((AnnotationMirror) value.getValue());
+                }
+            }
+        }
+        return mappings;
+    }
+
+    private Object value(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<? extends AnnotationValue> values(AnnotationMirror annotation, String name) {
+        return (List<? extends AnnotationValue>) value(annotation, name);
+    }
+
+    private ExecutableType memberType(TypeElement type, ExecutableElement method) {
+        return (ExecutableType) processingEnv.getTypeUtils().asMemberOf((DeclaredType) type.asType(), method);
+    }
+
+    private boolean isAssignable(TypeMirror from, TypeMirror to) {
+        return processingEnv.getTypeUtils().isAssignable(erasure(from), erasure(to));
+    }
+
+    private TypeMirror boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).asType();
+        }
+        return type;
+    }
+
+    private TypeMirror erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type);
+    }
+
+    private TypeMirror typeOf(Class<?> clazz) {
+        return processingEnv.getElementUtils().getTypeElement(clazz.getCanonicalName()).asType();
+    }
+
+    private static TypeElement asTypeElement(Object type) {
+        return (TypeElement) ((DeclaredType) type).asElement();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void warning(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+
+    /**
+     * A class pair to generate the copy code of.
+     */
+    private static final class Mapping {
+
+        private final TypeElement source;
+
+        private final TypeElement target;
+
+        private final List<Converter> converters = new ArrayList<>();
+
+        Mapping(TypeElement source, TypeElement target) {
+            this.source = source;
+            this.target = target;
+        }
+    }
+
+    /**
+     * A converter with its resolved type arguments and the name of the field holding its instance.
+     */
+    private static final class Converter {
+
+        private final TypeElement type;
+
+        private final TypeMirror sourceType;
+
+        private final TypeMirror targetType;
+
+        private final String field;
+
+        Converter(TypeElement type, TypeMirror sourceType, TypeMirror targetType, String field) {
+            this.type = type;
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            this.field = field;
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.github.mottox.util.bean;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit test for {@link BeanCloner}.
+ *
+ * @author Robin Wang
+ */
+public class BeanClonerTest {
+
+    @Test
+    public void testEvictCloners() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        BeanCloner cloner = new BeanCloner(type -> {
+            lookups.incrementAndGet();
+            return Bean::new;
+        }, 0);
+        Bean source = new Bean();
+        source.setName("a");
+
+        Assert.assertEquals("a", cloner.deepClone(source).getName());
+        cloner.deepClone(source);
+        Assert.assertEquals(1, lookups.get());
+
+        // Every eviction drops the cloner of the bean, which holds the factory it looked up.
+        cloner.evict(Bean.class);
+        cloner.deepClone(source);
+        Assert.assertEquals(2, lookups.get());
+
+        cloner.evict(Bean.class.getClassLoader());
+        cloner.deepClone(source);
+        Assert.assertEquals(3, lookups.get());
+
+        cloner.clear();
+        Assert.assertEquals("a", cloner.deepClone(source).getName());
+        Assert.assertEquals(4, lookups.get());
+    }
+
+    public static class Bean {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -1,17 +1,52 @@
 package com.github.mottox.util.bean;
 
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.management.ObjectName;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 /**
  * JUnit test for {@link BeanConverterImpl}.
  *
  * @author Robin Wang
  */
+@RunWith(Parameterized.class)
 public class BeanConverterImplTest {
 
+    @Parameterized.Parameter
+    public CopyEngine engine;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static CopyEngine[] engines() {
+        return CopyEngine.values();
+    }
+
     @Test
     public void testCopyProperties() throws Exception {
         SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
@@ -19,6 +54,7 @@ public class BeanConverterImplTest {
         TargetBean target = new TargetBean();
 
         BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
                 .registerConverter((TypeConverter<Gender, Integer>) Gender::getValue)
                 .registerConverter((TypeConverter<Double, BigDecimal>) BigDecimal::valueOf)
                 .registerConverter((TypeConverter<BigDecimal, String>) BigDecimal::toPlainString)
@@ -39,6 +75,7 @@ public class BeanConverterImplTest {
         SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
 
         BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
                 .registerConverter((TypeConverter<Gender, Integer>) Gender::getValue)
                 .registerConverter((TypeConverter<Double, BigDecimal>) BigDecimal::valueOf)
                 .registerConverter((TypeConverter<BigDecimal, String>) BigDecimal::toPlainString)
@@ -53,6 +90,733 @@ public class BeanConverterImplTest {
         Assert.assertTrue(source.wealth.compareTo(new BigDecimal(target.wealth)) == 0);
     }
 
+    @Test
+    public void testMetrics() throws Exception {
+        SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
+
+        JmxConversionMetrics metrics = new JmxConversionMetrics();
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .metrics(metrics)
+                .registerConverter((TypeConverter<Gender, Integer>) Gender::getValue)
+                .registerConverter((TypeConverter<Double, BigDecimal>) BigDecimal::valueOf)
+                .build();
+
+        converter.convert(source, TargetBean.class);
+        TargetBean target = converter.convert(source, TargetBean.class);
+
+        Assert.assertEquals(source.gender.value, target.gender);
+        Assert.assertNull(target.wealth);
+        Assert.assertEquals(1, metrics.getCopierCacheHits());
+        Assert.assertEquals(1, metrics.getCopierCacheMisses());
+        Assert.assertEquals(1, metrics.getCopierCacheSize());
+        Assert.assertEquals(1, metrics.getCopierCreations());
+        Assert.assertEquals(Long.valueOf(2), metrics.getConversionCounts()
+                .get(SourceBean.class.getName() + " -> " + TargetBean.class.getName()));
+        Assert.assertEquals(2, Arrays.stream(metrics.getConversionHistograms()
+                .get(SourceBean.class.getName() + " -> " + TargetBean.class.getName())).sum());
+        Assert.assertEquals(Long.valueOf(2), metrics.getConverterInvocations()
+                .get(Gender.class.getName() + " -> " + Integer.class.getName()));
+        Assert.assertEquals(Long.valueOf(2), metrics.getConverterInvocations()
+                .get(Double.class.getName() + " -> " + BigDecimal.class.getName()));
+        Assert.assertEquals(Long.valueOf(2), metrics.getUnmatchedProperties()
+                .get(BigDecimal.class.getName() + " -> " + String.class.getName()));
+
+        ObjectName objectName = metrics.register(engine.name());
+        try {
+            Assert.assertEquals(1L, ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(objectName, "CopierCacheMisses"));
+        } finally {
+            JmxConversionMetrics.unregister(objectName);
+        }
+
+        metrics.reset();
+        Assert.assertEquals(0, metrics.getCopierCacheHits());
+        Assert.assertTrue(metrics.getConversionCounts().isEmpty());
+    }
+
+    @Test
+    public void testMetricsDoNotRetainConverters() throws Exception {
+        JmxConversionMetrics metrics = new JmxConversionMetrics();
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).metrics(metrics).build();
+        converter.convert(new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.ONE), TargetBean.class);
+        Assert.assertEquals(1, metrics.getCopierCacheSize());
+
+        WeakReference<BeanConverter> reference = new WeakReference<>(converter);
+        converter = null;
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        Assert.assertNull(reference.get());
+        Assert.assertEquals(0, metrics.getCopierCacheSize());
+    }
+
+    @Test
+    public void testConverterAdapterLookup() throws Exception {
+        BeanConverterImpl.ConverterAdapter adapter = new BeanConverterImpl.ConverterAdapter(Arrays.asList(
+                (TypeConverter<Number, String>) number -> "number",
+                (TypeConverter<Integer, String>) integer -> "integer"));
+
+        Assert.assertSame(BeanConverterImpl.ConverterAdapter.PASS_THROUGH, adapter.lookup(Integer.class, int.class));
+        Assert.assertSame(BeanConverterImpl.ConverterAdapter.PASS_THROUGH, adapter.lookup(Integer.class, Number.class));
+        Assert.assertSame(BeanConverterImpl.ConverterAdapter.NO_MATCH, adapter.lookup(Integer.class, Gender.class));
+        Assert.assertSame(adapter.lookup(Integer.class, String.class), adapter.lookup(Integer.class, String.class));
+
+        // Converters are resolved in the order their source types are registered.
+        Assert.assertEquals("number", adapter.convert(1, String.class, null));
+        Assert.assertNull(adapter.convert(1, Gender.class, null));
+        Assert.assertNull(adapter.convert(null, String.class, null));
+    }
+
+    @Test
+    public void testConverterAdapterEviction() throws Exception {
+        // Metered adapters wrap every resolved converter, so a converter resolved again is a new instance.
+        BeanConverterImpl.ConverterAdapter adapter = new BeanConverterImpl.ConverterAdapter(
+                Collections.singletonList((TypeConverter<Integer, String>) String::valueOf), null, 2,
+                new JmxConversionMetrics(), null);
+        TypeConverter<Object, Object> integerToString = adapter.lookup(Integer.class, String.class);
+        TypeConverter<Object, Object> longToString = adapter.lookup(Long.class, String.class);
+
+        adapter.evict(Integer.class);
+        Assert.assertNotSame(integerToString, adapter.lookup(Integer.class, String.class));
+        Assert.assertSame(longToString, adapter.lookup(Long.class, String.class));
+
+        adapter.clear();
+        Assert.assertNotSame(longToString, adapter.lookup(Long.class, String.class));
+
+        // The least recently used converter is evicted beyond the maximum size.
+        TypeConverter<Object, Object> shortToString = adapter.lookup(Short.class, String.class);
+        adapter.lookup(Byte.class, String.class);
+        adapter.lookup(Long.class, String.class);
+        Assert.assertNotSame(shortToString, adapter.lookup(Short.class, String.class));
+    }
+
+    @Test
+    public void testConvertPrimitives() throws Exception {
+        PrimitiveSourceBean source = new PrimitiveSourceBean();
+        source.setCount(null);
+        source.setTotal(42);
+        source.setRatio(0.5F);
+
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .registerConverter((TypeConverter<Float, String>) String::valueOf)
+                .build();
+
+        PrimitiveTargetBean target = converter.convert(source, PrimitiveTargetBean.class);
+
+        Assert.assertEquals(0, target.getCount());
+        Assert.assertEquals(42L, target.getTotal());
+        Assert.assertEquals("0.5", target.getRatio());
+    }
+
+    @Test
+    public void testCopyNonNull() throws Exception {
+        SourceBean source = new SourceBean(null, 34, null, 1.85, null);
+        TargetBean target = new TargetBean("Lisa", 26, 2, BigDecimal.valueOf(1.64), "321.123");
+
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .registerConverter((TypeConverter<Gender, Integer>) Gender::getValue)
+                .registerConverter((TypeConverter<Double, BigDecimal>) BigDecimal::valueOf)
+                .registerConverter((TypeConverter<BigDecimal, String>) BigDecimal::toPlainString)
+                .build();
+
+        Set<String> changes = new LinkedHashSet<>();
+        converter.copyNonNull(source, target, changes);
+
+        Assert.assertEquals("Lisa", target.name);
+        Assert.assertEquals(34, target.age);
+        Assert.assertEquals(2, target.gender);
+        Assert.assertEquals(BigDecimal.valueOf(1.85), target.height);
+        Assert.assertEquals("321.123", target.wealth);
+        Assert.assertEquals(new HashSet<>(Arrays.asList("age", "height")), changes);
+
+        changes.clear();
+        converter.copyNonNull(source, target, changes);
+        Assert.assertTrue(changes.isEmpty());
+
+        PrimitiveSourceBean primitiveSource = new PrimitiveSourceBean();
+        primitiveSource.setCount(null);
+        primitiveSource.setTotal(42);
+        primitiveSource.setRatio(0.5F);
+        PrimitiveTargetBean primitiveTarget = new PrimitiveTargetBean();
+        primitiveTarget.setCount(7);
+
+        converter.copyNonNull(primitiveSource, primitiveTarget);
+
+        Assert.assertEquals(7, primitiveTarget.getCount());
+        Assert.assertEquals(42L, primitiveTarget.getTotal());
+        Assert.assertNull(primitiveTarget.getRatio());
+    }
+
+    @Test
+    public void testMappingRules() throws Exception {
+        AccountSourceBean source = new AccountSourceBean();
+        source.setUserId(42L);
+        source.setName("Peter");
+        source.setPassword("secret");
+        source.setCreated(1500000000000L);
+
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .renameProperty(AccountSourceBean.class, AccountTargetBean.class, "userId", "id")
+                .ignoreProperty(AccountSourceBean.class, AccountTargetBean.class, "password")
+                .registerPropertyConverter(AccountSourceBean.class, AccountTargetBean.class, "created",
+                        (TypeConverter<Long, String>) created -> "@" + created)
+                .build();
+
+        AccountTargetBean target = converter.convert(source, AccountTargetBean.class);
+
+        Assert.assertEquals(42L, target.getId());
+        Assert.assertEquals("Peter", target.getName());
+        Assert.assertNull(target.getPassword());
+        Assert.assertEquals("@1500000000000", target.getCreated());
+
+        // The rules only apply to the declared class pair.
+        AccountSourceBean copy = converter.convert(source, AccountSourceBean.class);
+        Assert.assertEquals("secret", copy.getPassword());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMappingRulesOfMissingProperty() throws Exception {
+        BeanConverterBuilder.create().renameProperty(AccountSourceBean.class, AccountTargetBean.class, "id", "name");
+    }
+
+    @Test
+    public void testStrictMode() throws Exception {
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .strict(true)
+                .registerConverter((TypeConverter<Long, Integer>) Long::intValue)
+                .registerConverter((TypeConverter<String, Float>) Float::valueOf)
+                .build();
+
+        // Registered converters are deliberate, so they are not reported as lossy.
+        converter.prepare(PrimitiveTargetBean.class, PrimitiveSourceBean.class);
+        try {
+            converter.convert(new AccountSourceBean(), AccountTargetBean.class);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("property id is unmapped"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(
+                    "property created is unconvertible from long to java.lang.String"));
+        }
+
+        BeanConverter acknowledged = BeanConverterBuilder.create()
+                .engine(engine)
+                .strict(true)
+                .renameProperty(AccountSourceBean.class, AccountTargetBean.class, "userId", "id")
+                .registerPropertyConverter(AccountSourceBean.class, AccountTargetBean.class, "created",
+                        (TypeConverter<Long, String>) String::valueOf)
+                .build();
+        AccountSourceBean source = new AccountSourceBean();
+        source.setUserId(42L);
+        source.setCreated(1L);
+
+        AccountTargetBean target = acknowledged.convert(source, AccountTargetBean.class);
+
+        Assert.assertEquals(42L, target.getId());
+        Assert.assertEquals("1", target.getCreated());
+
+        BeanConverter standard = BeanConverterBuilder.create()
+                .engine(engine)
+                .strict(true)
+                .registerConverter((TypeConverter<Integer, String>) String::valueOf)
+                .registerStandardConverters()
+                .build();
+        try {
+            standard.prepare(LossySourceBean.class, LossyTargetBean.class);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(
+                    "property id may lose precision from long to float"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains(
+                    "property amount may lose precision from java.math.BigDecimal to java.lang.Double"));
+            // The converter of Integer matches the values of the declared type Number at runtime.
+            Assert.assertFalse(e.getMessage(), e.getMessage().contains("property code"));
+        }
+    }
+
+    @Test
+    public void testMapper() throws Exception {
+        SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
+
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .registerConverter((TypeConverter<Gender, Integer>) Gender::getValue)
+                .registerConverter((TypeConverter<Double, BigDecimal>) BigDecimal::valueOf)
+                .registerConverter((TypeConverter<BigDecimal, String>) BigDecimal::toPlainString)
+                .build();
+        Mapper<SourceBean, TargetBean> mapper = converter.mapper(SourceBean.class, TargetBean.class);
+
+        TargetBean target = mapper.map(source);
+
+        Assert.assertEquals(source.name, target.name);
+        Assert.assertEquals((int) source.age, target.age);
+        Assert.assertEquals(source.gender.value, target.gender);
+        Assert.assertEquals(source.wealth.toPlainString(), target.wealth);
+        Assert.assertNull(mapper.map(null));
+        Assert.assertSame(SourceBean.class, mapper.getSourceType());
+        Assert.assertSame(TargetBean.class, mapper.getTargetType());
+
+        TargetBean copied = new TargetBean();
+        mapper.copy(source, copied);
+        Assert.assertEquals(source.name, copied.name);
+        Assert.assertEquals(source.gender.value, copied.gender);
+    }
+
+    @Test
+    public void testStandardConverters() throws Exception {
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .registerStandardConverters(ZoneOffset.UTC)
+                .registerConverter((TypeConverter<Integer, Long>) value -> -value.longValue())
+                .build();
+        StandardSourceBean source = new StandardSourceBean();
+        source.setCount("42");
+        source.setGender("FEMALE");
+        source.setActive("TRUE");
+        source.setCreated(new Date(86_400_000L));
+        source.setPrice(new BigDecimal("1.25"));
+        source.setAmount(0.1);
+        source.setDay(LocalDate.of(2017, 6, 1));
+        source.setTotal(7);
+
+        StandardTargetBean target = converter.convert(source, StandardTargetBean.class);
+
+        Assert.assertEquals(42, target.getCount());
+        Assert.assertEquals(Gender.FEMALE, target.getGender());
+        Assert.assertNull(target.getUnknownGender());
+        Assert.assertTrue(target.isActive());
+        Assert.assertEquals(LocalDateTime.of(1970, 1, 2, 0, 0), target.getCreated());
+        Assert.assertEquals(Double.valueOf(1.25), target.getPrice());
+        Assert.assertEquals(new BigDecimal("0.1"), target.getAmount());
+        Assert.assertEquals("2017-06-01", target.getDay());
+        // The registered converters take precedence over the standard converters.
+        Assert.assertEquals(Long.valueOf(-7L), target.getTotal());
+
+        StandardSourceBean back = BeanConverterBuilder.create()
+                .engine(engine)
+                .registerStandardConverters(ZoneOffset.UTC)
+                .build()
+                .convert(target, StandardSourceBean.class);
+
+        Assert.assertEquals("42", back.getCount());
+        Assert.assertEquals("FEMALE", back.getGender());
+        Assert.assertNull(back.getUnknownGender());
+        Assert.assertEquals("true", back.getActive());
+        Assert.assertEquals(new Date(86_400_000L), back.getCreated());
+        Assert.assertEquals(new BigDecimal("1.25"), back.getPrice());
+        Assert.assertEquals(Double.valueOf(0.1), back.getAmount());
+        Assert.assertEquals(LocalDate.of(2017, 6, 1), back.getDay());
+        Assert.assertNull(back.getTotal());
+
+        // Unknown names and malformed booleans fail rather than silently becoming null or false.
+        source.setUnknownGender("OTHER");
+        try {
+            converter.convert(source, StandardTargetBean.class);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("No enum constant " + Gender.class.getName() + ".OTHER", e.getMessage());
+        }
+        source.setUnknownGender(null);
+        source.setActive("yes");
+        try {
+            converter.convert(source, StandardTargetBean.class);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Not a boolean: \"yes\"", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testConvertWithFactory() throws Exception {
+        PrimitiveSourceBean source = new PrimitiveSourceBean();
+        source.setTotal(42);
+
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .registerFactory(ImmutableTotalBean.class, () -> new ImmutableTotalBean(7))
+                .build();
+
+        ImmutableTotalBean target = converter.convert(source, ImmutableTotalBean.class);
+
+        Assert.assertEquals(7, target.id);
+        Assert.assertEquals(42L, target.getTotal());
+    }
+
+    @Test
+    public void testConvertAll() throws Exception {
+        PrimitiveSourceBean first = new PrimitiveSourceBean();
+        first.setTotal(1);
+        PrimitiveSourceBean second = new PrimitiveSourceBean() {
+        };
+        second.setTotal(2);
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+
+        List<PrimitiveTargetBean> targets = converter.convertAll(new LinkedHashSet<>(Arrays.asList(first, second)),
+                PrimitiveTargetBean.class);
+        PrimitiveTargetBean[] array = converter.convertArray(new Object[]{second, null, first},
+                PrimitiveTargetBean.class);
+
+        Assert.assertEquals(2, targets.size());
+        Assert.assertEquals(1L, targets.get(0).getTotal());
+        Assert.assertEquals(2L, targets.get(1).getTotal());
+        Assert.assertEquals(3, array.length);
+        Assert.assertEquals(2L, array[0].getTotal());
+        Assert.assertNull(array[1]);
+        Assert.assertEquals(1L, array[2].getTotal());
+    }
+
+    @Test
+    public void testConvertAllParallel() throws Exception {
+        List<PrimitiveSourceBean> sources = new ArrayList<>();
+        for (int i = 0; i < ParallelConversion.THRESHOLD * 8; i++) {
+            PrimitiveSourceBean source = i % 3 == 0 ? new PrimitiveSourceBean() {
+            } : new PrimitiveSourceBean();
+            source.setTotal(i);
+            sources.add(source);
+        }
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<PrimitiveTargetBean> pooled = converter.convertAllParallel(sources, PrimitiveTargetBean.class);
+            List<PrimitiveTargetBean> executed = converter.convertAllParallel(sources, PrimitiveTargetBean.class,
+                    executor);
+
+            Assert.assertEquals(sources.size(), pooled.size());
+            Assert.assertEquals(sources.size(), executed.size());
+            for (int i = 0; i < sources.size(); i++) {
+                Assert.assertEquals(i, pooled.get(i).getTotal());
+                Assert.assertEquals(i, executed.get(i).getTotal());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConvertStream() throws Exception {
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+
+        List<PrimitiveTargetBean> targets = converter.convertStream(IntStream.range(0, 3).mapToObj(i -> {
+            PrimitiveSourceBean source = new PrimitiveSourceBean();
+            source.setTotal(i);
+            return source;
+        }), PrimitiveTargetBean.class).collect(Collectors.toList());
+
+        Assert.assertEquals(3, targets.size());
+        Assert.assertEquals(2L, targets.get(2).getTotal());
+    }
+
+    @Test
+    public void testRecyclingIterator() throws Exception {
+        PrimitiveSourceBean first = new PrimitiveSourceBean();
+        first.setTotal(1);
+        PrimitiveSourceBean second = new PrimitiveSourceBean();
+        second.setTotal(2);
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+        PrimitiveTargetBean target = new PrimitiveTargetBean();
+        Iterator<PrimitiveTargetBean> iterator = converter.recyclingIterator(Arrays.asList(first, second).iterator(),
+                target);
+
+        Assert.assertSame(target, iterator.next());
+        Assert.assertEquals(1L, target.getTotal());
+        Assert.assertSame(target, iterator.next());
+        Assert.assertEquals(2L, target.getTotal());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testDeepConversion() throws Exception {
+        Node root = new Node("root");
+        Node a = new Node("a");
+        Node b = new Node("b");
+        a.setNext(b);
+        b.setNext(root);
+        root.setChildren(Arrays.asList(a, b));
+        root.setIndex(Collections.singletonMap("a", a));
+        root.setLinks(new Node[] {b, null});
+        root.setTags(new LinkedHashSet<>(Arrays.asList("x", "y")));
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).deepConversion(true).build();
+        NodeView view = converter.convert(root, NodeView.class);
+
+        Assert.assertEquals("root", view.getName());
+        Assert.assertEquals(2, view.getChildren().size());
+        NodeView viewA = view.getChildren().get(0);
+        NodeView viewB = view.getChildren().get(1);
+        Assert.assertEquals("a", viewA.getName());
+        Assert.assertEquals("b", viewB.getName());
+        Assert.assertSame(viewB, viewA.getNext());
+        Assert.assertSame(view, viewB.getNext());
+        Assert.assertSame(viewA, view.getIndex().get("a"));
+        Assert.assertEquals(2, view.getLinks().length);
+        Assert.assertSame(viewB, view.getLinks()[0]);
+        Assert.assertNull(view.getLinks()[1]);
+        Assert.assertSame(root.getTags(), view.getTags());
+    }
+
+    @Test
+    public void testDeepConversionOfLongChain() throws Exception {
+        Node head = new Node("0");
+        Node tail = head;
+        for (int i = 1; i < 100000; i++) {
+            Node next = new Node(String.valueOf(i));
+            tail.setNext(next);
+            tail = next;
+        }
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).deepConversion(true).build();
+        NodeView view = converter.convert(head, NodeView.class);
+
+        int count = 0;
+        for (NodeView node = view; node != null; node = node.getNext()) {
+            Assert.assertEquals(String.valueOf(count++), node.getName());
+        }
+        Assert.assertEquals(100000, count);
+    }
+
+    @Test
+    public void testClone() throws Exception {
+        Node root = new Node("root");
+        root.setChildren(new ArrayList<>(Collections.singletonList(new Node("a"))));
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+
+        Node clone = converter.clone(root);
+
+        Assert.assertNotSame(root, clone);
+        Assert.assertEquals("root", clone.getName());
+        Assert.assertSame(root.getChildren(), clone.getChildren());
+    }
+
+    @Test
+    public void testDeepClone() throws Exception {
+        Node root = new Node("root");
+        Node a = new Node("a");
+        Node b = new Node("b");
+        a.setNext(b);
+        b.setNext(root);
+        root.setChildren(new ArrayList<>(Arrays.asList(a, b)));
+        root.setIndex(Collections.singletonMap("a", a));
+        root.setLinks(new Node[] {b, null});
+        root.setTags(new LinkedHashSet<>(Arrays.asList("x", "y")));
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+        Node clone = converter.deepClone(root);
+
+        Assert.assertNotSame(root, clone);
+        Assert.assertEquals("root", clone.getName());
+        Assert.assertNotSame(root.getChildren(), clone.getChildren());
+        Assert.assertEquals(ArrayList.class, clone.getChildren().getClass());
+        Node cloneA = clone.getChildren().get(0);
+        Node cloneB = clone.getChildren().get(1);
+        Assert.assertNotSame(a, cloneA);
+        Assert.assertEquals("a", cloneA.getName());
+        Assert.assertSame(cloneB, cloneA.getNext());
+        Assert.assertSame(clone, cloneB.getNext());
+        // The unmodifiable singleton map has no public constructor, so it is copied into a modifiable map.
+        Assert.assertSame(cloneA, clone.getIndex().get("a"));
+        clone.getIndex().put("b", cloneB);
+        Assert.assertNotSame(root.getLinks(), clone.getLinks());
+        Assert.assertSame(cloneB, clone.getLinks()[0]);
+        Assert.assertNull(clone.getLinks()[1]);
+        Assert.assertNotSame(root.getTags(), clone.getTags());
+        Assert.assertEquals(root.getTags(), clone.getTags());
+
+        Node head = new Node("0");
+        Node tail = head;
+        for (int i = 1; i < 100000; i++) {
+            Node next = new Node(String.valueOf(i));
+            tail.setNext(next);
+            tail = next;
+        }
+        int count = 0;
+        for (Node node = converter.deepClone(head); node != null; node = node.getNext()) {
+            Assert.assertEquals(String.valueOf(count++), node.getName());
+        }
+        Assert.assertEquals(100000, count);
+    }
+
+    @Test
+    public void testShallowConversionOfNestedBeans() throws Exception {
+        Node root = new Node("root");
+        root.setNext(new Node("next"));
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+        NodeView view = converter.convert(root, NodeView.class);
+
+        Assert.assertEquals("root", view.getName());
+        Assert.assertNull(view.getNext());
+    }
+
+    @Test
+    public void testShallowConversionOfUnconvertibleElements() throws Exception {
+        Node root = new Node("root");
+        List<Node> children = Arrays.asList(new Node("a"), new Node("b"));
+        root.setChildren(children);
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+        NodeView view = converter.convert(root, NodeView.class);
+
+        // No converter converts the elements, so the list is neither emptied nor shared with wrong elements.
+        Assert.assertNull(view.getChildren());
+
+        BeanConverter strict = BeanConverterBuilder.create()
+                .engine(engine)
+                .strict(true)
+                .ignoreProperty(Node.class, NodeView.class, "next")
+                .ignoreProperty(Node.class, NodeView.class, "index")
+                .ignoreProperty(Node.class, NodeView.class, "links")
+                .build();
+        try {
+            strict.convert(root, NodeView.class);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("property children is unconvertible from "
+                    + "element type " + Node.class.getName() + " to " + NodeView.class.getName()));
+        }
+    }
+
+    @Test
+    public void testConvertContainerElements() throws Exception {
+        ContainerSourceBean source = new ContainerSourceBean();
+        source.setIds(Arrays.asList(1, null, 3));
+        source.setScores(new int[] {7, 8});
+        source.setNames(new LinkedHashSet<>(Arrays.asList("a", "b")));
+        source.setCodes(new String[] {"x", "y"});
+        source.setCounts(Collections.singletonMap("k", 42));
+
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .registerConverter((TypeConverter<Integer, String>) String::valueOf)
+                .build();
+        ContainerTargetBean target = converter.convert(source, ContainerTargetBean.class);
+
+        Assert.assertEquals(Arrays.asList("1", null, "3"), target.getIds());
+        Assert.assertArrayEquals(new long[] {7L, 8L}, target.getScores());
+        Assert.assertEquals(Arrays.asList("a", "b"), target.getNames());
+        Assert.assertEquals(Arrays.asList("x", "y"), target.getCodes());
+        Assert.assertEquals(Collections.singletonMap("k", "42"), target.getCounts());
+    }
+
+    @Test
+    public void testCopyArrays() throws Exception {
+        ContainerSourceBean source = new ContainerSourceBean();
+        source.setScores(new int[] {7, 8});
+        source.setCodes(new String[] {"x", "y"});
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+        ContainerSourceBean target = converter.convert(source, ContainerSourceBean.class);
+
+        Assert.assertNotSame(source.getScores(), target.getScores());
+        Assert.assertArrayEquals(source.getScores(), target.getScores());
+        Assert.assertNotSame(source.getCodes(), target.getCodes());
+        Assert.assertArrayEquals(source.getCodes(), target.getCodes());
+    }
+
+    @Test
+    public void testConvertToMap() throws Exception {
+        SourceBean source = new SourceBean("Peter", 34, Gender.MALE, null, BigDecimal.ONE);
+
+        BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+        Map<String, Object> map = converter.toMap(source);
+
+        Assert.assertEquals(Arrays.asList("age", "gender", "height", "name", "wealth"),
+                new ArrayList<>(map.keySet()));
+        Assert.assertEquals(34, map.get("age"));
+        Assert.assertEquals(Gender.MALE, map.get("gender"));
+        Assert.assertTrue(map.containsKey("height"));
+        Assert.assertNull(map.get("height"));
+        Assert.assertEquals("Peter", map.get("name"));
+        Assert.assertEquals(BigDecimal.ONE, map.get("wealth"));
+    }
+
+    @Test
+    public void testConvertFromMap() throws Exception {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "Lisa");
+        map.put("age", 26L);
+        map.put("gender", Gender.FEMALE);
+        map.put("wealth", null);
+
+        BeanConverter converter = BeanConverterBuilder.create()
+                .engine(engine)
+                .registerConverter((TypeConverter<Gender, Integer>) Gender::getValue)
+                .registerConverter((TypeConverter<Long, Integer>) Long::intValue)
+                .build();
+        TargetBean target = new TargetBean("Peter", 34, 0, BigDecimal.ONE, "1");
+        converter.copyProperties(map, target);
+
+        Assert.assertEquals("Lisa", target.name);
+        Assert.assertEquals(26, target.age);
+        Assert.assertEquals(Gender.FEMALE.value, target.gender);
+        Assert.assertEquals(BigDecimal.ONE, target.height);
+        Assert.assertNull(target.wealth);
+
+        PrimitiveTargetBean converted =
+                converter.convert(Collections.singletonMap("total", 42), PrimitiveTargetBean.class);
+
+        Assert.assertEquals(42L, converted.getTotal());
+    }
+
+    @Test
+    public void testMappingRulesOfMaps() throws Exception {
+        try {
+            BeanConverterBuilder.create().ignoreProperty(HashMap.class, TargetBean.class, "name");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("not applicable to the map"));
+        }
+        try {
+            BeanConverterBuilder.create().registerPropertyConverter(SourceBean.class, Map.class, "name",
+                    (TypeConverter<String, String>) String::trim);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("not applicable to the map"));
+        }
+
+        BeanConverter strict = BeanConverterBuilder.create().engine(engine).strict(true).build();
+        Map<String, Object> map = strict.toMap(new PrimitiveTargetBean());
+
+        Assert.assertEquals(0L, map.get("total"));
+        try {
+            strict.convert(map, PrimitiveTargetBean.class);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("the keys of a map cannot be validated"));
+        }
+    }
+
+    @Test
+    public void testConvertIsolatedBeans() throws Exception {
+        try (IsolatingClassLoader classLoader = new IsolatingClassLoader(BeanConverterImplTest.class)) {
+            Class<?> sourceClass = classLoader.loadClass(PrimitiveSourceBean.class.getName());
+            Class<?> targetClass = classLoader.loadClass(PrimitiveTargetBean.class.getName());
+            Assert.assertNotSame(PrimitiveSourceBean.class, sourceClass);
+
+            Object source = sourceClass.newInstance();
+            sourceClass.getMethod("setTotal", int.class).invoke(source, 42);
+            Object target = targetClass.newInstance();
+
+            BeanConverter converter = BeanConverterBuilder.create().engine(engine).build();
+            converter.copyProperties(source, target);
+
+            Assert.assertEquals(42L, targetClass.getMethod("getTotal").invoke(target));
+
+            Object converted = converter.convert(source, targetClass);
+
+            Assert.assertSame(targetClass, converted.getClass());
+            Assert.assertEquals(42L, targetClass.getMethod("getTotal").invoke(converted));
+        }
+    }
+
     private enum Gender {
         MALE(0),
         FEMALE(1);
@@ -190,4 +954,685 @@ public class BeanConverterImplTest {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * A class loader which loads the nested classes of a test itself instead of delegating to its parent, so the
+     * classes are not visible by name from the class loader of the library. Other classes not found by the parent are
+     * loaded from the given additional locations.
+     */
+    static class IsolatingClassLoader extends URLClassLoader {
+
+        private final String prefix;
+
+        IsolatingClassLoader(Class<?> test, URL... locations) {
+            super(urls(test, locations), test.getClassLoader());
+            this.prefix = test.getName() + '$';
+        }
+
+        private static URL[] urls(Class<?> test, URL... locations) {
+            URL[] urls = Arrays.copyOf(locations, locations.length + 1);
+            urls[locations.length] = test.getProtectionDomain().getCodeSource().getLocation();
+            return urls;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(prefix)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                return clazz != null ? clazz : findClass(name);
+            }
+        }
+    }
+
+    public static class AccountSourceBean {
+        private Long userId;
+
+        private String name;
+
+        private String password;
+
+        private long created;
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public void setCreated(long created) {
+            this.created = created;
+        }
+    }
+
+    public static class AccountTargetBean {
+        private long id;
+
+        private String name;
+
+        private String password;
+
+        private String created;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getCreated() {
+            return created;
+        }
+
+        public void setCreated(String created) {
+            this.created = created;
+        }
+    }
+
+    public static class PrimitiveSourceBean {
+        private Integer count;
+
+        private int total;
+
+        private float ratio;
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+
+        public float getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(float ratio) {
+            this.ratio = ratio;
+        }
+    }
+
+    public static class PrimitiveTargetBean {
+        private int count;
+
+        private long total;
+
+        private String ratio;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public String getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(String ratio) {
+            this.ratio = ratio;
+        }
+    }
+
+    public static class LossySourceBean {
+        private long id;
+
+        private BigDecimal amount;
+
+        private Number code;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public Number getCode() {
+            return code;
+        }
+
+        public void setCode(Number code) {
+            this.code = code;
+        }
+    }
+
+    public static class LossyTargetBean {
+        private float id;
+
+        private Double amount;
+
+        private String code;
+
+        public float getId() {
+            return id;
+        }
+
+        public void setId(float id) {
+            this.id = id;
+        }
+
+        public Double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Double amount) {
+            this.amount = amount;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+    }
+
+    public static class ImmutableTotalBean {
+        private final int id;
+
+        private long total;
+
+        public ImmutableTotalBean(int id) {
+            this.id = id;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+    }
+
+    public static class Node {
+        private String name;
+
+        private Node next;
+
+        private List<Node> children;
+
+        private Map<String, Node> index;
+
+        private Node[] links;
+
+        private Set<String> tags;
+
+        public Node() {
+        }
+
+        public Node(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Node getNext() {
+            return next;
+        }
+
+        public void setNext(Node next) {
+            this.next = next;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<Node> children) {
+            this.children = children;
+        }
+
+        public Map<String, Node> getIndex() {
+            return index;
+        }
+
+        public void setIndex(Map<String, Node> index) {
+            this.index = index;
+        }
+
+        public Node[] getLinks() {
+            return links;
+        }
+
+        public void setLinks(Node[] links) {
+            this.links = links;
+        }
+
+        public Set<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(Set<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    public static class NodeView {
+        private String name;
+
+        private NodeView next;
+
+        private List<NodeView> children;
+
+        private Map<String, NodeView> index;
+
+        private NodeView[] links;
+
+        private Set<String> tags;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public NodeView getNext() {
+            return next;
+        }
+
+        public void setNext(NodeView next) {
+            this.next = next;
+        }
+
+        public List<NodeView> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<NodeView> children) {
+            this.children = children;
+        }
+
+        public Map<String, NodeView> getIndex() {
+            return index;
+        }
+
+        public void setIndex(Map<String, NodeView> index) {
+            this.index = index;
+        }
+
+        public NodeView[] getLinks() {
+            return links;
+        }
+
+        public void setLinks(NodeView[] links) {
+            this.links = links;
+        }
+
+        public Set<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(Set<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    public static class ContainerSourceBean {
+        private List<Integer> ids;
+
+        private int[] scores;
+
+        private Set<String> names;
+
+        private String[] codes;
+
+        private Map<String, Integer> counts;
+
+        public List<Integer> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<Integer> ids) {
+            this.ids = ids;
+        }
+
+        public int[] getScores() {
+            return scores;
+        }
+
+        public void setScores(int[] scores) {
+            this.scores = scores;
+        }
+
+        public Set<String> getNames() {
+            return names;
+        }
+
+        public void setNames(Set<String> names) {
+            this.names = names;
+        }
+
+        public String[] getCodes() {
+            return codes;
+        }
+
+        public void setCodes(String[] codes) {
+            this.codes = codes;
+        }
+
+        public Map<String, Integer> getCounts() {
+            return counts;
+        }
+
+        public void setCounts(Map<String, Integer> counts) {
+            this.counts = counts;
+        }
+    }
+
+    public static class ContainerTargetBean {
+        private List<String> ids;
+
+        private long[] scores;
+
+        private List<String> names;
+
+        private List<String> codes;
+
+        private Map<String, String> counts;
+
+        public List<String> getIds() {
+            return ids;
+        }
+
+        public void setIds(List<String> ids) {
+            this.ids = ids;
+        }
+
+        public long[] getScores() {
+            return scores;
+        }
+
+        public void setScores(long[] scores) {
+            this.scores = scores;
+        }
+
+        public List<String> getNames() {
+            return names;
+        }
+
+        public void setNames(List<String> names) {
+            this.names = names;
+        }
+
+        public List<String> getCodes() {
+            return codes;
+        }
+
+        public void setCodes(List<String> codes) {
+            this.codes = codes;
+        }
+
+        public Map<String, String> getCounts() {
+            return counts;
+        }
+
+        public void setCounts(Map<String, String> counts) {
+            this.counts = counts;
+        }
+    }
+
+    public static class StandardSourceBean {
+        private String count;
+
+        private String gender;
+
+        private String unknownGender;
+
+        private Date created;
+
+        private BigDecimal price;
+
+        private Double amount;
+
+        private LocalDate day;
+
+        private Integer total;
+
+        private String active;
+
+        public String getCount() {
+            return count;
+        }
+
+        public void setCount(String count) {
+            this.count = count;
+        }
+
+        public String getGender() {
+            return gender;
+        }
+
+        public void setGender(String gender) {
+            this.gender = gender;
+        }
+
+        public String getUnknownGender() {
+            return unknownGender;
+        }
+
+        public void setUnknownGender(String unknownGender) {
+            this.unknownGender = unknownGender;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+
+        public void setCreated(Date created) {
+            this.created = created;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+
+        public Double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(Double amount) {
+            this.amount = amount;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public void setDay(LocalDate day) {
+            this.day = day;
+        }
+
+        public Integer getTotal() {
+            return total;
+        }
+
+        public void setTotal(Integer total) {
+            this.total = total;
+        }
+
+        public String getActive() {
+            return active;
+        }
+
+        public void setActive(String active) {
+            this.active = active;
+        }
+    }
+
+    public static class StandardTargetBean {
+        private int count;
+
+        private Gender gender;
+
+        private Gender unknownGender;
+
+        private LocalDateTime created;
+
+        private Double price;
+
+        private BigDecimal amount;
+
+        private String day;
+
+        private Long total;
+
+        private boolean active;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public Gender getGender() {
+            return gender;
+        }
+
+        public void setGender(Gender gender) {
+            this.gender = gender;
+        }
+
+        public Gender getUnknownGender() {
+            return unknownGender;
+        }
+
+        public void setUnknownGender(Gender unknownGender) {
+            this.unknownGender = unknownGender;
+        }
+
+        public LocalDateTime getCreated() {
+            return created;
+        }
+
+        public void setCreated(LocalDateTime created) {
+            this.created = created;
+        }
+
+        public Double getPrice() {
+            return price;
+        }
+
+        public void setPrice(Double price) {
+            this.price = price;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public String getDay() {
+            return day;
+        }
+
+        public void setDay(String day) {
+            this.day = day;
+        }
+
+        public Long getTotal() {
+            return total;
+        }
+
+        public void setTotal(Long total) {
+            this.total = total;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+    }
+
+}
@@ -1,9 +1,16 @@
 package com.github.mottox.util.bean;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * JUnit test for {@link BeanUtils}.
@@ -12,6 +19,9 @@ import org.junit.Test;
  */
 public class BeanUtilsTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testCopyProperties() throws Exception {
         SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
@@ -26,6 +36,65 @@ public class BeanUtilsTest {
         Assert.assertEquals(source.wealth, target.wealth);
     }
 
+    @Test
+    public void testCopyNonNull() throws Exception {
+        SourceBean source = new SourceBean(null, 34, null, 1.64, null);
+        TargetBean target = new TargetBean("Lisa", 26, Gender.FEMALE, 1.64, BigDecimal.valueOf(321.123));
+
+        List<String> changes = new ArrayList<>();
+        BeanUtils.copyNonNull(source, target, changes);
+
+        Assert.assertEquals("Lisa", target.name);
+        Assert.assertEquals(source.age, target.age);
+        Assert.assertEquals(Gender.FEMALE, target.gender);
+        Assert.assertEquals(source.height, target.height);
+        Assert.assertEquals(BigDecimal.valueOf(321.123), target.wealth);
+        Assert.assertEquals(Collections.singletonList("age"), changes);
+
+        source.name = "Peter";
+        BeanUtils.copyNonNull(source, target);
+        Assert.assertEquals(source.name, target.name);
+    }
+
+    @Test
+    public void testCopyNonNullOfAssignableTypes() throws Exception {
+        WideningSourceBean source = new WideningSourceBean();
+        source.setTags(new ArrayList<>(Collections.singletonList("a")));
+        source.setCount(5);
+
+        WideningTargetBean copied = new WideningTargetBean();
+        BeanUtils.copyProperties(source, copied);
+        WideningTargetBean copiedNonNull = new WideningTargetBean();
+        List<String> changes = new ArrayList<>();
+        BeanUtils.copyNonNull(source, copiedNonNull, changes);
+
+        Assert.assertEquals(Collections.singletonList("a"), copied.getTags());
+        Assert.assertEquals(5, copied.getCount());
+        Assert.assertEquals(copied.getTags(), copiedNonNull.getTags());
+        Assert.assertEquals(copied.getCount(), copiedNonNull.getCount());
+        Assert.assertEquals(Arrays.asList("count", "tags"), changes);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDefaultCopyNonNull() throws Exception {
+        BeanConverter converter = new BeanConverter() {
+            @Override
+            public void copyProperties(Object source, Object target) {
+                BeanUtils.copyProperties(source, target);
+            }
+
+            @Override
+            public <T> T convert(Object source, Class<T> clazz) {
+                return BeanUtils.convert(source, clazz);
+            }
+        };
+        SourceBean source = new SourceBean(null, 34, null, 1.64, null);
+        TargetBean target = new TargetBean("Lisa", 26, Gender.FEMALE, 1.64, BigDecimal.valueOf(321.123));
+
+        // The converters of an implementation are unknown, so the default does not copy without them.
+        converter.copyNonNull(source, target, new ArrayList<>());
+    }
+
     @Test
     public void testConvert() throws Exception {
         SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
@@ -39,11 +108,235 @@ public class BeanUtilsTest {
         Assert.assertEquals(source.wealth, target.wealth);
     }
 
+    @Test
+    public void testMapper() throws Exception {
+        SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
+        Mapper<SourceBean, TargetBean> mapper = BeanUtils.mapper(SourceBean.class, TargetBean.class);
+
+        TargetBean target = mapper.map(source);
+
+        Assert.assertEquals(source.name, target.name);
+        Assert.assertEquals(source.age, target.age);
+        Assert.assertEquals(source.gender, target.gender);
+        Assert.assertEquals(source.height, target.height);
+        Assert.assertEquals(source.wealth, target.wealth);
+        Assert.assertNull(mapper.map(null));
+    }
+
+    @Test
+    public void testClone() throws Exception {
+        TargetBean source = new TargetBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
+
+        TargetBean target = BeanUtils.clone(source);
+
+        Assert.assertNotSame(source, target);
+        Assert.assertEquals(source.getName(), target.getName());
+        Assert.assertEquals(source.getAge(), target.getAge());
+        Assert.assertEquals(source.getGender(), target.getGender());
+        Assert.assertEquals(source.getHeight(), target.getHeight());
+        Assert.assertEquals(source.getWealth(), target.getWealth());
+    }
+
+    @Test
+    public void testDeepClone() throws Exception {
+        BeanConverterImplTest.Node root = new BeanConverterImplTest.Node("root");
+        BeanConverterImplTest.Node child = new BeanConverterImplTest.Node("child");
+        child.setNext(root);
+        root.setChildren(Collections.singletonList(child));
+
+        BeanConverterImplTest.Node clone = BeanUtils.deepClone(root);
+
+        Assert.assertNotSame(root.getChildren(), clone.getChildren());
+        Assert.assertNotSame(child, clone.getChildren().get(0));
+        Assert.assertEquals("child", clone.getChildren().get(0).getName());
+        Assert.assertSame(clone, clone.getChildren().get(0).getNext());
+    }
+
+    @Test
+    public void testConvertAnonymousClass() throws Exception {
+        SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321)) {
+        };
+        Assert.assertNull(source.getClass().getCanonicalName());
+
+        TargetBean target = BeanUtils.convert(source, TargetBean.class);
+
+        Assert.assertEquals(source.name, target.name);
+        Assert.assertEquals(source.age, target.age);
+        Assert.assertEquals(source.gender, target.gender);
+        Assert.assertEquals(source.height, target.height);
+        Assert.assertEquals(source.wealth, target.wealth);
+    }
+
+    @Test
+    public void testConvertList() throws Exception {
+        SourceBean peter = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
+        SourceBean lisa = new SourceBean("Lisa", 26, Gender.FEMALE, 1.64, BigDecimal.valueOf(321.123));
+
+        List<TargetBean> targets = BeanUtils.convertList(Arrays.asList(peter, null, lisa), TargetBean.class);
+
+        Assert.assertEquals(3, targets.size());
+        Assert.assertEquals(peter.name, targets.get(0).name);
+        Assert.assertNull(targets.get(1));
+        Assert.assertEquals(lisa.name, targets.get(2).name);
+        Assert.assertEquals(lisa.wealth, targets.get(2).wealth);
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
+
+        JmxConversionMetrics metrics = new JmxConversionMetrics();
+        BeanUtils.setMetrics(metrics);
+        try {
+            BeanUtils.convert(source, TargetBean.class);
+            BeanUtils.convertList(Arrays.asList(source, source), TargetBean.class);
+        } finally {
+            BeanUtils.setMetrics(ConversionMetrics.NONE);
+        }
+        BeanUtils.convert(source, TargetBean.class);
+
+        Assert.assertEquals(2, metrics.getCopierCacheHits() + metrics.getCopierCacheMisses());
+        Assert.assertTrue(metrics.getCopierCacheSize() > 0);
+        Assert.assertEquals(Long.valueOf(3), metrics.getConversionCounts()
+                .get(SourceBean.class.getName() + " -> " + TargetBean.class.getName()));
+
+        // Setting the same metrics again does not count the caches twice.
+        int size = metrics.getCopierCacheSize();
+        BeanUtils.setMetrics(metrics);
+        BeanUtils.setMetrics(ConversionMetrics.NONE);
+        Assert.assertEquals(size, metrics.getCopierCacheSize());
+    }
+
+    @Test
+    public void testPrepareAll() throws Exception {
+        BeanUtils.evict(PreparedSourceBean.class);
+        JmxConversionMetrics metrics = new JmxConversionMetrics();
+        BeanUtils.setMetrics(metrics);
+        try {
+            BeanUtils.prepareAll(PreparedSourceBean.class);
+            Assert.assertEquals(1, metrics.getCopierCacheMisses());
+
+            PreparedSourceBean source = new PreparedSourceBean();
+            source.setName("Peter");
+            Assert.assertEquals("Peter", BeanUtils.convert(source, PreparedTargetBean.class).getName());
+            Assert.assertEquals(1, metrics.getCopierCacheMisses());
+            Assert.assertEquals(1, metrics.getCopierCacheHits());
+        } finally {
+            BeanUtils.setMetrics(ConversionMetrics.NONE);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrepareAllWithoutAnnotation() throws Exception {
+        BeanUtils.prepareAll(SourceBean.class);
+    }
+
+    @Test
+    public void testCopierGenerator() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        try (BeanConverterImplTest.IsolatingClassLoader classLoader =
+                     new BeanConverterImplTest.IsolatingClassLoader(BeanUtilsTest.class, directory.toUri().toURL())) {
+            Class<?> sourceClass = classLoader.loadClass(PreparedSourceBean.class.getName());
+            Class<?> targetClass = classLoader.loadClass(PreparedTargetBean.class.getName());
+
+            List<String> generated = CopierGenerator.generate(directory, sourceClass);
+            Assert.assertEquals(2, generated.size());
+
+            // The copiers are loaded from the directory instead of being generated.
+            for (boolean useConverter : new boolean[] {false, true}) {
+                Assert.assertEquals(directory.toUri().toURL(), CopierGenerator.beanCopier(sourceClass, targetClass,
+                        useConverter).getClass().getProtectionDomain().getCodeSource().getLocation());
+            }
+
+            Object source = sourceClass.newInstance();
+            sourceClass.getMethod("setName", String.class).invoke(source, "Peter");
+            Object target = BeanUtils.convert(source, targetClass);
+            Assert.assertEquals("Peter", targetClass.getMethod("getName").invoke(target));
+            BeanUtils.evict(classLoader);
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testConvertWithoutNoArgConstructor() throws Exception {
+        TargetBean source = new TargetBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
+
+        BeanUtils.convert(source, SourceBean.class);
+    }
+
     private enum Gender {
         MALE,
         FEMALE
     }
 
+    public static class WideningSourceBean {
+        private ArrayList<String> tags;
+
+        private Integer count;
+
+        public ArrayList<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(ArrayList<String> tags) {
+            this.tags = tags;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+    }
+
+    public static class WideningTargetBean {
+        private List<String> tags;
+
+        private Number count;
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public Number getCount() {
+            return count;
+        }
+
+        public void setCount(Number count) {
+            this.count = count;
+        }
+    }
+
+    @Convertible(PreparedTargetBean.class)
+    public static class PreparedSourceBean {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class PreparedTargetBean {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
     private static class SourceBean {
         private String name;
 
@@ -0,0 +1,236 @@
+package com.github.mottox.util.bean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * JUnit test for {@link ClassPairCache}.
+ *
+ * @author Robin Wang
+ */
+public class ClassPairCacheTest {
+
+    @Test
+    public void testGet() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+
+        String value = cache.get(String.class, Integer.class, (s, t) -> s.getName() + t.getName());
+
+        Assert.assertEquals("java.lang.Stringjava.lang.Integer", value);
+        Assert.assertSame(value, cache.get(String.class, Integer.class, (s, t) -> "unexpected"));
+    }
+
+    @Test
+    public void testGetWithDistinctPairs() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+
+        cache.get(A.class, B.class, (s, t) -> "first");
+
+        Assert.assertEquals("second", cache.get(B.class, A.class, (s, t) -> "second"));
+        Assert.assertEquals("third", cache.get(A.class, A.class, (s, t) -> "third"));
+        Assert.assertEquals("first", cache.get(A.class, B.class, (s, t) -> "unexpected"));
+    }
+
+    @Test
+    public void testGetWithLocalClass() throws Exception {
+        class Local {
+        }
+        ClassPairCache<String> cache = new ClassPairCache<>();
+
+        String value = cache.get(Local.class, Object.class, (s, t) -> "local");
+
+        Assert.assertEquals("local", value);
+    }
+
+    @Test
+    public void testMaximumSize() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>(2);
+
+        cache.get(A.class, A.class, (s, t) -> "first");
+        cache.get(A.class, B.class, (s, t) -> "second");
+        // Touch the first entry so that the second one becomes the least recently used.
+        Thread.sleep(1);
+        cache.get(A.class, A.class, (s, t) -> "unexpected");
+        cache.get(B.class, A.class, (s, t) -> "third");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals("first", cache.get(A.class, A.class, (s, t) -> "unexpected"));
+        Assert.assertEquals("evicted", cache.get(A.class, B.class, (s, t) -> "evicted"));
+    }
+
+    @Test
+    public void testEvict() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+        cache.get(A.class, A.class, (s, t) -> "first");
+        cache.get(A.class, B.class, (s, t) -> "second");
+        cache.get(B.class, String.class, (s, t) -> "third");
+
+        cache.evict(B.class);
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("first", cache.get(A.class, A.class, (s, t) -> "unexpected"));
+        Assert.assertEquals("evicted", cache.get(A.class, B.class, (s, t) -> "evicted"));
+    }
+
+    @Test
+    public void testEvictClassLoader() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+        cache.get(A.class, A.class, (s, t) -> "first");
+        cache.get(String.class, Integer.class, (s, t) -> "second");
+
+        cache.evict(A.class.getClassLoader());
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals("second", cache.get(String.class, Integer.class, (s, t) -> "unexpected"));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+        cache.get(A.class, A.class, (s, t) -> "first");
+        cache.get(A.class, B.class, (s, t) -> "second");
+
+        cache.clear();
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals("evicted", cache.get(A.class, A.class, (s, t) -> "evicted"));
+    }
+
+    @Test
+    public void testConcurrentCreation() throws Exception {
+        List<Class<?>> classes = Arrays.asList(A.class, B.class, String.class, Integer.class, Long.class,
+                Double.class, Float.class, Short.class, Byte.class, Character.class, Boolean.class, Object.class,
+                Number.class, List.class, Map.class, Thread.class);
+        ClassPairCache<Object> cache = new ClassPairCache<>();
+        Map<List<Class<?>>, AtomicInteger> creations = new ConcurrentHashMap<>();
+        Map<List<Class<?>>, Object> values = new ConcurrentHashMap<>();
+        int threads = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                List<Class<?>> sources = new ArrayList<>(classes);
+                Collections.shuffle(sources);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (Class<?> source : sources) {
+                        for (Class<?> target : classes) {
+                            Object value = cache.get(source, target, (s, t) -> {
+                                creations.computeIfAbsent(Arrays.asList(s, t), key -> new AtomicInteger())
+                                        .incrementAndGet();
+                                if (s == A.class) {
+                                    // Simulate a slow class generation
+                                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+                                }
+                                return new Object();
+                            });
+                            Assert.assertSame(value, values.computeIfAbsent(Arrays.asList(source, target),
+                                    key -> value));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(classes.size() * classes.size(), creations.size());
+        for (AtomicInteger count : creations.values()) {
+            Assert.assertEquals(1, count.get());
+        }
+        Assert.assertEquals(creations.size(), cache.size());
+    }
+
+    @Test
+    public void testCreationDoesNotBlockOtherPairs() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> slow = executor.submit(() -> cache.get(A.class, B.class, (s, t) -> {
+                creating.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return "slow";
+            }));
+            creating.await();
+
+            Future<String> waiting = executor.submit(() -> cache.get(A.class, B.class, (s, t) -> "unexpected"));
+            Assert.assertEquals("fast", cache.get(A.class, A.class, (s, t) -> "fast"));
+            Assert.assertEquals("other", cache.get(B.class, B.class, (s, t) -> "other"));
+            Assert.assertNull(cache.getIfPresent(A.class, B.class));
+            Assert.assertFalse(waiting.isDone());
+
+            release.countDown();
+            Assert.assertEquals("slow", slow.get(1, TimeUnit.MINUTES));
+            Assert.assertEquals("slow", waiting.get(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCreationOfOtherPairDuringCreation() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+
+        String value = cache.get(A.class, B.class, (s, t) -> cache.get(A.class, A.class, (x, y) -> "inner") + "outer");
+
+        Assert.assertEquals("innerouter", value);
+        Assert.assertEquals("inner", cache.get(A.class, A.class, (s, t) -> "unexpected"));
+    }
+
+    @Test
+    public void testFailedCreation() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+
+        try {
+            cache.get(A.class, B.class, (s, t) -> {
+                throw new IllegalArgumentException("failed");
+            });
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("failed", e.getMessage());
+        }
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals("retried", cache.get(A.class, B.class, (s, t) -> "retried"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRecursiveCreation() throws Exception {
+        ClassPairCache<String> cache = new ClassPairCache<>();
+
+        cache.get(A.class, B.class, (s, t) -> cache.get(A.class, B.class, (x, y) -> "recursive"));
+    }
+
+    private static class A {
+    }
+
+    private static class B {
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.github.mottox.util.bean;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.cglib.beans.BeanCopier;
+
+import com.github.mottox.util.bean.BeanConverterImpl.ConverterAdapter;
+
+/**
+ * JUnit test for {@link CopierRegistry} and the classes shared by {@link BytecodeCopierGenerator}.
+ *
+ * @author Robin Wang
+ */
+public class CopierRegistryTest {
+
+    @Test
+    public void testBeanCopier() throws Exception {
+        Assert.assertSame(CopierRegistry.beanCopier(SourceBean.class, TargetBean.class),
+                CopierRegistry.beanCopier(SourceBean.class, TargetBean.class));
+    }
+
+    @Test
+    public void testShareBeanCopierAcrossConverters() throws Exception {
+        BeanConverter first = BeanConverterBuilder.create()
+                .registerConverter((TypeConverter<Integer, String>) String::valueOf)
+                .build();
+        BeanConverter second = BeanConverterBuilder.create()
+                .registerConverter((TypeConverter<Integer, String>) value -> "#" + value)
+                .build();
+        SourceBean source = new SourceBean();
+        source.setValue(42);
+        CopierRegistry.evict(SourceBean.class);
+        int size = CopierRegistry.size();
+
+        Assert.assertEquals("42", first.convert(source, TargetBean.class).getValue());
+        Assert.assertEquals(size + 1, CopierRegistry.size());
+        BeanCopier shared = CopierRegistry.beanCopier(SourceBean.class, TargetBean.class);
+
+        Assert.assertEquals("#42", second.convert(source, TargetBean.class).getValue());
+        Assert.assertEquals(size + 1, CopierRegistry.size());
+        Assert.assertSame(shared, CopierRegistry.beanCopier(SourceBean.class, TargetBean.class));
+    }
+
+    @Test
+    public void testClearSharedBeanCopiers() throws Exception {
+        BeanConverter converter = BeanConverterBuilder.create().build();
+        converter.convert(new SourceBean(), TargetBean.class);
+        Assert.assertTrue(CopierRegistry.size() > 0);
+
+        converter.clearCache();
+
+        Assert.assertEquals(0, CopierRegistry.size());
+    }
+
+    @Test
+    public void testBoundedConverterKeepsOwnBeanCopiers() throws Exception {
+        BeanConverter converter = BeanConverterBuilder.create()
+                .registerConverter((TypeConverter<Integer, String>) String::valueOf)
+                .maximumCacheSize(1)
+                .build();
+        SourceBean source = new SourceBean();
+        source.setValue(42);
+        CopierRegistry.evict(SourceBean.class);
+        int size = CopierRegistry.size();
+
+        Assert.assertEquals("42", converter.convert(source, TargetBean.class).getValue());
+        Assert.assertEquals(size, CopierRegistry.size());
+    }
+
+    @Test
+    public void testShareBytecodeClassAcrossConverters() throws Exception {
+        ConverterAdapter empty = new ConverterAdapter(Collections.emptyList());
+        ConverterAdapter converting = new ConverterAdapter(
+                Collections.singletonList((TypeConverter<Integer, String>) String::valueOf));
+
+        Class<?> copierClass = BytecodeCopierGenerator.copierClass(
+                MappingPlan.create(SourceBean.class, TargetBean.class, empty), false);
+
+        Assert.assertSame(copierClass, BytecodeCopierGenerator.copierClass(
+                MappingPlan.create(SourceBean.class, TargetBean.class, converting), false));
+        Assert.assertNotSame(copierClass, BytecodeCopierGenerator.copierClass(
+                MappingPlan.create(SourceBean.class, TargetBean.class, converting), true));
+    }
+
+    public static class SourceBean {
+        private Integer value;
+
+        public Integer getValue() {
+            return value;
+        }
+
+        public void setValue(Integer value) {
+            this.value = value;
+        }
+    }
+
+    public static class TargetBean {
+        private String value;
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,331 @@
+package com.github.mottox.util.bean.processor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.github.mottox.util.bean.BeanConverter;
+import com.github.mottox.util.bean.BeanMapping;
+import com.github.mottox.util.bean.TypeConverter;
+
+/**
+ * JUnit test for {@link BeanMappingProcessor}, which runs on this class when the tests are compiled.
+ *
+ * @author Robin Wang
+ */
+public class BeanMappingProcessorTest {
+
+    @Test
+    public void testCopyProperties() throws Exception {
+        SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.valueOf(123456789.87654321));
+        TargetBean target = new TargetBean();
+
+        BeanConverter converter = new BeanMappingProcessorTest_MapperImpl();
+        converter.copyProperties(source, target);
+
+        Assert.assertEquals(source.name, target.name);
+        Assert.assertEquals((int) source.age, target.age);
+        Assert.assertEquals(source.gender.value, target.gender);
+        Assert.assertTrue(BigDecimal.valueOf(source.height).compareTo(target.height) == 0);
+        Assert.assertTrue(source.wealth.compareTo(new BigDecimal(target.wealth)) == 0);
+    }
+
+    @Test
+    public void testCopyNonNull() throws Exception {
+        SourceBean source = new SourceBean(null, 34, Gender.MALE, null, null);
+        TargetBean target = new TargetBean();
+        target.setName("Lisa");
+        target.setAge(34);
+        target.setWealth("321.123");
+
+        List<String> changes = new ArrayList<>();
+        new BeanMappingProcessorTest_MapperImpl().copyNonNull(source, target, changes);
+
+        Assert.assertEquals("Lisa", target.name);
+        Assert.assertEquals(34, target.age);
+        Assert.assertEquals(source.gender.value, target.gender);
+        Assert.assertEquals("321.123", target.wealth);
+        Assert.assertEquals(Collections.singletonList("gender"), changes);
+    }
+
+    @Test
+    public void testConvert() throws Exception {
+        SourceBean source = new SourceBean("Peter", null, null, null, BigDecimal.ONE);
+
+        TargetBean target = new BeanMappingProcessorTest_MapperImpl().convert(source, TargetBean.class);
+
+        Assert.assertEquals(source.name, target.name);
+        Assert.assertEquals(0, target.age);
+        Assert.assertEquals(0, target.gender);
+        Assert.assertNull(target.height);
+        Assert.assertEquals("1", target.wealth);
+    }
+
+    @Test
+    public void testConvertBack() throws Exception {
+        TargetBean source = new TargetBean();
+        source.setName("Lisa");
+        source.setAge(26);
+        source.setGender(2);
+        source.setWealth("321.123");
+
+        SourceBean target = new BeanMappingProcessorTest_MapperImpl().convert(source, SourceBean.class);
+
+        Assert.assertEquals(source.name, target.name);
+        Assert.assertEquals(Integer.valueOf(26), target.age);
+        Assert.assertEquals(Gender.FEMALE, target.gender);
+        Assert.assertNull(target.height);
+        Assert.assertEquals(new BigDecimal("321.123"), target.wealth);
+    }
+
+    @Test
+    public void testConvertList() throws Exception {
+        SourceBean peter = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.ONE);
+
+        List<TargetBean> targets = new BeanMappingProcessorTest_MapperImpl()
+                .convertList(Arrays.asList(peter, null), TargetBean.class);
+
+        Assert.assertEquals(2, targets.size());
+        Assert.assertEquals(peter.name, targets.get(0).name);
+        Assert.assertNull(targets.get(1));
+    }
+
+    @Test
+    public void testToMap() throws Exception {
+        SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.ONE);
+
+        Map<String, Object> map = new BeanMappingProcessorTest_MapperImpl().toMap(source);
+
+        Assert.assertEquals(Arrays.asList("age", "gender", "height", "name", "wealth"),
+                new ArrayList<>(map.keySet()));
+        Assert.assertEquals(34, map.get("age"));
+        Assert.assertEquals(Gender.MALE, map.get("gender"));
+        Assert.assertEquals("Peter", map.get("name"));
+        Assert.assertEquals(BigDecimal.ONE, map.get("wealth"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToMapOfUndeclaredType() throws Exception {
+        new BeanMappingProcessorTest_MapperImpl().toMap(new Object());
+    }
+
+    @Test
+    public void testClone() throws Exception {
+        SourceBean source = new SourceBean("Peter", 34, Gender.MALE, 1.85, BigDecimal.ONE);
+
+        SourceBean clone = new BeanMappingProcessorTest_MapperImpl().clone(source);
+
+        Assert.assertNotSame(source, clone);
+        Assert.assertEquals(source.name, clone.name);
+        Assert.assertEquals(source.age, clone.age);
+        Assert.assertEquals(source.gender, clone.gender);
+        Assert.assertEquals(source.height, clone.height);
+        Assert.assertSame(source.wealth, clone.wealth);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDeepClone() throws Exception {
+        new BeanMappingProcessorTest_MapperImpl().deepClone(new SourceBean());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConvertUndeclaredPair() throws Exception {
+        new BeanMappingProcessorTest_MapperImpl().convert(new SourceBean(), SourceBean.class);
+    }
+
+    @BeanMapping(source = SourceBean.class, target = TargetBean.class,
+            converters = {GenderConverter.class, HeightConverter.class, WealthConverter.class})
+    @BeanMapping(source = TargetBean.class, target = SourceBean.class,
+            converters = {GenderValueConverter.class, HeightValueConverter.class, WealthValueConverter.class})
+    interface Mapper extends BeanConverter {
+    }
+
+    public static class GenderConverter implements TypeConverter<Gender, Integer> {
+
+        @Override
+        public Integer convert(Gender source) {
+            return source.value;
+        }
+    }
+
+    public static class HeightConverter implements TypeConverter<Double, BigDecimal> {
+
+        @Override
+        public BigDecimal convert(Double source) {
+            return BigDecimal.valueOf(source);
+        }
+    }
+
+    public static class WealthConverter implements TypeConverter<BigDecimal, String> {
+
+        @Override
+        public String convert(BigDecimal source) {
+            return source.toPlainString();
+        }
+    }
+
+    public static class GenderValueConverter implements TypeConverter<Integer, Gender> {
+
+        @Override
+        public Gender convert(Integer source) {
+            for (Gender gender : Gender.values()) {
+                if (gender.value == source) {
+                    return gender;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static class HeightValueConverter implements TypeConverter<BigDecimal, Double> {
+
+        @Override
+        public Double convert(BigDecimal source) {
+            return source.doubleValue();
+        }
+    }
+
+    public static class WealthValueConverter implements TypeConverter<String, BigDecimal> {
+
+        @Override
+        public BigDecimal convert(String source) {
+            return new BigDecimal(source);
+        }
+    }
+
+    enum Gender {
+
+        MALE(1),
+        FEMALE(2);
+
+        private final int value;
+
+        Gender(int value) {
+            this.value = value;
+        }
+    }
+
+    public static class SourceBean {
+
+        private String name;
+
+        private Integer age;
+
+        private Gender gender;
+
+        private Double height;
+
+        private BigDecimal wealth;
+
+        public SourceBean() {
+        }
+
+        public SourceBean(String name, Integer age, Gender gender, Double height, BigDecimal wealth) {
+            this.name = name;
+            this.age = age;
+            this.gender = gender;
+            this.height = height;
+            this.wealth = wealth;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+
+        public void setAge(Integer age) {
+            this.age = age;
+        }
+
+        public Gender getGender() {
+            return gender;
+        }
+
+        public void setGender(Gender gender) {
+            this.gender = gender;
+        }
+
+        public Double getHeight() {
+            return height;
+        }
+
+        public void setHeight(Double height) {
+            this.height = height;
+        }
+
+        public BigDecimal getWealth() {
+            return wealth;
+        }
+
+        public void setWealth(BigDecimal wealth) {
+            this.wealth = wealth;
+        }
+    }
+
+    public static class TargetBean {
+
+        private String name;
+
+        private int age;
+
+        private int gender;
+
+        private BigDecimal height;
+
+        private String wealth;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public int getGender() {
+            return gender;
+        }
+
+        public void setGender(int gender) {
+            this.gender = gender;
+        }
+
+        public BigDecimal getHeight() {
+            return height;
+        }
+
+        public void setHeight(BigDecimal height) {
+            this.height = height;
+        }
+
+        public String getWealth() {
+            return wealth;
+        }
+
+        public void setWealth(String wealth) {
+            this.wealth = wealth;
+        }
+    }
+
+}